@@ -38,6 +38,7 @@ public class SecurityConfig {
                         .requestMatchers(
                                 String.format("%s%s", Routes.AUTH, Routes.LOGIN),
                                 String.format("%s%s", Routes.AUTH, Routes.CHANGE_PASSWORD),
+                                String.format("%s%s", Routes.AUTH, Routes.REFRESH),
                                 "/actuator/health"
                         )
                         .permitAll()
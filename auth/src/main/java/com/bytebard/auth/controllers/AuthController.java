@@ -1,11 +1,14 @@
 package com.bytebard.auth.controllers;
 
+import com.bytebard.auth.security.LoginThrottle;
 import com.bytebard.auth.service.AuthService;
 import com.bytebard.auth.types.ChangePasswordRequest;
 import com.bytebard.auth.types.LoginRequest;
 import com.bytebard.auth.types.LoginResponse;
+import com.bytebard.auth.types.RefreshTokenRequest;
 import com.bytebard.core.api.constants.Routes;
 import com.bytebard.core.api.types.MvcApiReponse;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,20 +20,30 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class AuthController {
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginThrottle loginThrottle) {
         this.authService = authService;
+        this.loginThrottle = loginThrottle;
     }
 
     @PostMapping(Routes.LOGIN)
-    public ResponseEntity<MvcApiReponse<LoginResponse>> login(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<MvcApiReponse<LoginResponse>> login(@RequestBody LoginRequest loginRequest, HttpServletRequest httpRequest) {
+        loginThrottle.acquire(loginRequest.getEmail(), httpRequest);
         var result = authService.login(loginRequest);
         var loginResponse = new MvcApiReponse<>(result, HttpStatus.OK, true);
         return ResponseEntity.ok().body(loginResponse);
     }
 
+    @PostMapping(Routes.REFRESH)
+    public ResponseEntity<MvcApiReponse<LoginResponse>> refresh(@RequestBody RefreshTokenRequest request) {
+        var result = authService.refresh(request);
+        return ResponseEntity.ok().body(new MvcApiReponse<>(result, HttpStatus.OK, true));
+    }
+
     @PostMapping(Routes.CHANGE_PASSWORD)
-    public ResponseEntity<MvcApiReponse<Object>> changePassword(@RequestBody ChangePasswordRequest request) {
+    public ResponseEntity<MvcApiReponse<Object>> changePassword(@RequestBody ChangePasswordRequest request, HttpServletRequest httpRequest) {
+        loginThrottle.acquire(request.getEmail(), httpRequest);
         authService.changePassword(request);
         var loginResponse = new MvcApiReponse<>(null, HttpStatus.OK, true);
         return ResponseEntity.ok().body(loginResponse);
@@ -5,6 +5,7 @@ import com.bytebard.core.api.models.Status;
 import com.bytebard.core.api.models.User;
 import com.bytebard.core.api.repositories.RoleRepository;
 import com.bytebard.core.api.repositories.UserRepository;
+import com.bytebard.core.messaging.producer.UserEventsProducer;
 import com.bytebard.utils.DateUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
@@ -17,14 +18,16 @@ public class InsertDefaultAdmin implements CommandLineRunner {
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserEventsProducer producer;
 
     @Value("${spring.auth.default-password:defaultPassword}")
     private String defaultPassword;
 
-    public InsertDefaultAdmin(RoleRepository roleRepository, UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public InsertDefaultAdmin(RoleRepository roleRepository, UserRepository userRepository, PasswordEncoder passwordEncoder, UserEventsProducer producer) {
         this.roleRepository = roleRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.producer = producer;
     }
 
     @Transactional
@@ -43,6 +46,7 @@ public class InsertDefaultAdmin implements CommandLineRunner {
         if (findRole.isEmpty()) {
             adminRole = new Role(Role.ADMIN);
             roleRepository.save(adminRole);
+            producer.sendRolesChangedEvent();
         } else {
             adminRole = findRole.get();
         }
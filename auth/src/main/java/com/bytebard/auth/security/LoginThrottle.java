@@ -0,0 +1,93 @@
+package com.bytebard.auth.security;
+
+import com.bytebard.utils.RateLimitSketch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+@Component
+public class LoginThrottle {
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final boolean enabled;
+    private final List<IpAddressMatcher> trustedProxies;
+    private final RateLimitSketch emailBuckets;
+    private final RateLimitSketch ipBuckets;
+    private final Counter emailRejections;
+    private final Counter ipRejections;
+
+    public LoginThrottle(
+            MeterRegistry meterRegistry,
+            @Value("${spring.auth.throttle.enabled:true}") boolean enabled,
+            @Value("${spring.auth.throttle.trusted-proxies:}") String[] trustedProxies,
+            @Value("${spring.auth.throttle.sketch.width:4096}") int width,
+            @Value("${spring.auth.throttle.sketch.depth:4}") int depth,
+            @Value("${spring.auth.throttle.email.capacity:5}") int emailCapacity,
+            @Value("${spring.auth.throttle.email.refill-per-minute:5}") int emailRefillPerMinute,
+            @Value("${spring.auth.throttle.ip.capacity:30}") int ipCapacity,
+            @Value("${spring.auth.throttle.ip.refill-per-minute:60}") int ipRefillPerMinute
+    ) {
+        this.enabled = enabled;
+        this.trustedProxies = Arrays.stream(trustedProxies)
+                .map(String::trim)
+                .filter(cidr -> !cidr.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        this.emailBuckets = new RateLimitSketch(width, depth, emailCapacity, emailRefillPerMinute);
+        this.ipBuckets = new RateLimitSketch(width, depth, ipCapacity, ipRefillPerMinute);
+
+        this.emailRejections = Counter.builder("auth.throttle.rejected").tag("key", "email").register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.throttle.rejected").tag("key", "ip").register(meterRegistry);
+        Gauge.builder("auth.throttle.occupancy", emailBuckets, RateLimitSketch::occupancy).tag("key", "email").register(meterRegistry);
+        Gauge.builder("auth.throttle.occupancy", ipBuckets, RateLimitSketch::occupancy).tag("key", "ip").register(meterRegistry);
+    }
+
+    public void acquire(String email, HttpServletRequest request) {
+        if (!enabled) {
+            return;
+        }
+        if (!ipBuckets.tryAcquire(clientIp(request))) {
+            ipRejections.increment();
+            throw new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts, please try again later");
+        }
+        if (email != null && !emailBuckets.tryAcquire(email.trim().toLowerCase(Locale.ROOT))) {
+            emailRejections.increment();
+            throw new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts, please try again later");
+        }
+    }
+
+    String clientIp(HttpServletRequest request) {
+        // X-Forwarded-For is client-controlled unless the hop that sent it is one of our proxies
+        var remoteAddr = request.getRemoteAddr();
+        var forwardedFor = isTrustedProxy(remoteAddr) ? request.getHeader(FORWARDED_FOR) : null;
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            var last = forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+            if (!last.isEmpty()) {
+                return last;
+            }
+        }
+        return remoteAddr;
+    }
+
+    private boolean isTrustedProxy(String remoteAddr) {
+        if (remoteAddr == null) {
+            return false;
+        }
+        for (var proxy : trustedProxies) {
+            if (proxy.matches(remoteAddr)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
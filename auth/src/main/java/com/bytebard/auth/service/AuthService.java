@@ -3,37 +3,47 @@ package com.bytebard.auth.service;
 import com.bytebard.auth.types.ChangePasswordRequest;
 import com.bytebard.auth.types.LoginRequest;
 import com.bytebard.auth.types.LoginResponse;
+import com.bytebard.auth.types.RefreshTokenRequest;
 import com.bytebard.core.api.config.TokenAuthConfig;
 import com.bytebard.core.api.mappers.UserMapper;
+import com.bytebard.core.api.models.Role;
 import com.bytebard.core.api.models.Status;
+import com.bytebard.core.api.models.User;
 import com.bytebard.core.api.repositories.UserRepository;
 import com.bytebard.core.api.security.JwtAuthenticationTokenProvider;
+import com.bytebard.core.api.security.PasswordHashingExecutor;
 import com.bytebard.core.api.validators.FieldValidator;
+import com.bytebard.core.messaging.producer.UserEventsProducer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.HttpClientErrorException;
 
+import java.time.Duration;
 import java.util.Objects;
 
 @Service
 public class AuthService {
 
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
     private final UserRepository userRepository;
 
-    @Value("${spring.jwt.expiry-in-hours}")
-    private Long accessTokenExpiryInHours;
+    @Value("${spring.jwt.access-token.expiry-minutes:15}")
+    private Long accessTokenExpiryInMinutes;
 
     private final JwtAuthenticationTokenProvider provider;
     private final TokenAuthConfig config;
+    private final UserEventsProducer producer;
+    private final RefreshTokenService refreshTokenService;
 
-    public AuthService(JwtAuthenticationTokenProvider provider, TokenAuthConfig config, PasswordEncoder passwordEncoder, UserRepository userRepository) {
+    public AuthService(JwtAuthenticationTokenProvider provider, TokenAuthConfig config, PasswordHashingExecutor hashingExecutor, UserRepository userRepository, UserEventsProducer producer, RefreshTokenService refreshTokenService) {
         this.provider = provider;
         this.config = config;
-        this.passwordEncoder = passwordEncoder;
+        this.hashingExecutor = hashingExecutor;
         this.userRepository = userRepository;
+        this.producer = producer;
+        this.refreshTokenService = refreshTokenService;
     }
 
     public LoginResponse login(LoginRequest request) {
@@ -41,19 +51,47 @@ public class AuthService {
         if (Objects.equals(user.getStatus(), Status.INACTIVE)) {
             throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED, "This user is currently inactive, Please change your password and try again.");
         }
-        var token = config.token(user.getId(), accessTokenExpiryInHours);
-        return new LoginResponse(token, UserMapper.toUserDTO(user));
+        if (hashingExecutor.upgradeEncoding(user.getPassword())) {
+            user.setPassword(hashingExecutor.encode(request.getPassword()));
+            userRepository.save(user);
+        }
+        return new LoginResponse(accessToken(user), refreshTokenService.issue(user.getId()), UserMapper.toUserDTO(user));
+    }
+
+    public LoginResponse refresh(RefreshTokenRequest request) {
+        var rotation = refreshTokenService.rotate(request.getRefreshToken());
+        var user = userRepository.findById(rotation.userId()).orElse(null);
+        if (user == null || Objects.equals(user.getStatus(), Status.INACTIVE)) {
+            refreshTokenService.revokeAll(rotation.userId());
+            throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+        return new LoginResponse(accessToken(user), rotation.refreshToken(), UserMapper.toUserDTO(user));
+    }
+
+    private String accessToken(User user) {
+        var ttl = Duration.ofMinutes(accessTokenExpiryInMinutes);
+        if (config.isStateless()) {
+            var roles = userRepository.findRolesByUserId(user.getId()).stream().map(Role::getName).toList();
+            return config.token(user.getId(), ttl, user.getTokenEpoch(), roles, user.getStatus());
+        }
+        return config.token(user.getId(), ttl, user.getTokenEpoch(), null, null);
     }
 
+    // One transaction for the password, the epoch bump, the refresh-token revocation and the outbox rows.
+    @Transactional
     public void changePassword(ChangePasswordRequest request) {
         if (!FieldValidator.isValidPassword(request.getNewPassword())) {
             throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Invalid new password format");
         }
         var user = this.provider.authenticate(request.getEmail(), request.getOldPassword());
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setPassword(hashingExecutor.encode(request.getNewPassword()));
         if (!Objects.equals(user.getStatus(), Status.ACTIVE)) {
             user.setStatus(Status.ACTIVE);
         }
         userRepository.save(user);
+        userRepository.incrementTokenEpoch(user.getId());
+        refreshTokenService.revokeAll(user.getId());
+        producer.sendUserUpdatedEvent(user.getId());
+        producer.sendUserTokensRevokedEvent(user.getId());
     }
 }
@@ -0,0 +1,91 @@
+package com.bytebard.auth.service;
+
+import com.bytebard.core.api.models.RefreshToken;
+import com.bytebard.core.api.repositories.RefreshTokenRepository;
+import com.bytebard.utils.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+@Service
+public class RefreshTokenService {
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${spring.jwt.refresh-token.expiry-days:14}")
+    private Long refreshTokenExpiryInDays;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    public String issue(Long userId) {
+        refreshTokenRepository.deleteExpiredByUserId(userId, DateUtils.now());
+        return create(userId, UUID.randomUUID(), DateUtils.add(DateUtils.now(), refreshTokenExpiryInDays, ChronoUnit.DAYS));
+    }
+
+    // Marking the old token used and saving its successor commit together, so a failed save leaves the old token usable.
+    // Rejections do not roll back: the family revocation on reuse has to stick even though the call fails.
+    @Transactional(noRollbackFor = HttpClientErrorException.class)
+    public Rotation rotate(String token) {
+        if (token == null || token.isBlank()) {
+            throw invalid();
+        }
+        var stored = refreshTokenRepository.findByTokenHash(hash(token)).orElseThrow(this::invalid);
+        var now = DateUtils.now();
+        if (stored.getUsedAt() != null || refreshTokenRepository.markUsed(stored.getId(), now) == 0) {
+            log.warn("Refresh token reuse detected for user {}, revoking token family", stored.getUserId());
+            refreshTokenRepository.deleteByFamilyId(stored.getFamilyId());
+            throw invalid();
+        }
+        if (stored.getExpiresAt().isBefore(now)) {
+            throw invalid();
+        }
+        // The family keeps the deadline of its first token, so rotating cannot extend a session indefinitely.
+        return new Rotation(stored.getUserId(), create(stored.getUserId(), stored.getFamilyId(), stored.getExpiresAt()));
+    }
+
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    private String create(Long userId, UUID familyId, LocalDateTime expiresAt) {
+        var bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        var token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(userId, familyId, hash(token), expiresAt));
+        return token;
+    }
+
+    private String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpClientErrorException invalid() {
+        return new HttpClientErrorException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+    }
+
+    public record Rotation(Long userId, String refreshToken) {}
+}
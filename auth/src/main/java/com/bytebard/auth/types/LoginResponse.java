@@ -4,6 +4,7 @@ import com.bytebard.core.api.types.UserDTO;
 
 public class LoginResponse {
     private String token;
+    private String refreshToken;
     private UserDTO user;
 
     public LoginResponse(String token, UserDTO user) {
@@ -11,6 +12,12 @@ public class LoginResponse {
         this.user = user;
     }
 
+    public LoginResponse(String token, String refreshToken, UserDTO user) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.user = user;
+    }
+
     public String getToken() {
         return token;
     }
@@ -19,6 +26,14 @@ public class LoginResponse {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public UserDTO getUser() {
         return user;
     }
@@ -97,6 +97,10 @@ class SecurityConfigTest {
 
         mockMvc.perform(MockMvcRequestBuilders.get(changePasswordUri).servletPath(changePasswordUri))
                 .andExpect(status().isNotFound());
+
+        var refreshUri = String.format("%s%s", Routes.AUTH, Routes.REFRESH);
+        mockMvc.perform(MockMvcRequestBuilders.get(refreshUri).servletPath(refreshUri))
+                .andExpect(status().isNotFound());
     }
 
     @Test
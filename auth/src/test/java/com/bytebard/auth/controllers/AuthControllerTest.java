@@ -1,6 +1,7 @@
 package com.bytebard.auth.controllers;
 
 import com.bytebard.auth.AuthApplication;
+import com.bytebard.auth.security.LoginThrottle;
 import com.bytebard.auth.service.AuthService;
 import com.bytebard.core.api.constants.Routes;
 import org.junit.jupiter.api.Test;
@@ -9,13 +10,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.HttpClientErrorException;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -31,6 +37,9 @@ class AuthControllerTest {
     @MockitoBean
     private AuthService authService;
 
+    @MockitoBean
+    private LoginThrottle loginThrottle;
+
     @Test
     void loginEndpoint_returnsOk() throws Exception {
         when(authService.login(any())).thenReturn(null);
@@ -42,6 +51,30 @@ class AuthControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void loginEndpoint_returnsTooManyRequests_whenThrottled() throws Exception {
+        doThrow(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts, please try again later"))
+                .when(loginThrottle).acquire(any(), any());
+        var url = String.format("%s%s", Routes.AUTH, Routes.LOGIN);
+
+        mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"u@mail.com\",\"password\":\"p\"}"))
+                .andExpect(status().isTooManyRequests());
+        verify(authService, never()).login(any());
+    }
+
+    @Test
+    void refreshEndpoint_returnsOk() throws Exception {
+        when(authService.refresh(any())).thenReturn(null);
+        var url = String.format("%s%s", Routes.AUTH, Routes.REFRESH);
+
+        mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"r\"}"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void changePasswordEndpoint_returnsOk() throws Exception {
         doNothing().when(authService).changePassword(any());
@@ -0,0 +1,80 @@
+package com.bytebard.auth.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.HttpClientErrorException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private SimpleMeterRegistry registry;
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        throttle = new LoginThrottle(registry, true, new String[]{"172.17.0.0/16"}, 1024, 4, 3, 1, 100, 1);
+    }
+
+    @Test
+    void acquire_rejectsEmailOnceBucketIsEmpty() {
+        var request = requestFrom("10.0.0.1");
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("Victim@Mail.com", request);
+        }
+
+        var ex = assertThrows(HttpClientErrorException.class, () -> throttle.acquire(" victim@mail.com ", requestFrom("10.0.0.2")));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatusCode());
+        assertEquals(1.0, registry.get("auth.throttle.rejected").tag("key", "email").counter().count());
+        assertDoesNotThrow(() -> throttle.acquire("other@mail.com", request));
+        assertTrue(registry.get("auth.throttle.occupancy").tag("key", "email").gauge().value() > 0);
+    }
+
+    @Test
+    void acquire_rejectsClientIpAcrossEmails() {
+        var ipThrottle = new LoginThrottle(registry, true, new String[]{"172.17.0.0/16"}, 1024, 4, 100, 1, 2, 1);
+        var request = requestFrom("10.0.0.1");
+        ipThrottle.acquire("a@mail.com", request);
+        ipThrottle.acquire("b@mail.com", request);
+
+        var ex = assertThrows(HttpClientErrorException.class, () -> ipThrottle.acquire("c@mail.com", request));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatusCode());
+        assertEquals(1.0, registry.get("auth.throttle.rejected").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void clientIp_usesLastForwardedForEntry() {
+        var request = requestFrom("172.17.0.1");
+        request.addHeader("X-Forwarded-For", "1.2.3.4, 203.0.113.9");
+
+        assertEquals("203.0.113.9", throttle.clientIp(request));
+        assertEquals("172.17.0.1", throttle.clientIp(requestFrom("172.17.0.1")));
+    }
+
+    @Test
+    void clientIp_ignoresForwardedForFromUntrustedPeer() {
+        var request = requestFrom("198.51.100.7");
+        request.addHeader("X-Forwarded-For", "203.0.113.9");
+
+        assertEquals("198.51.100.7", throttle.clientIp(request));
+    }
+
+    @Test
+    void clientIp_ignoresForwardedForWhenNoProxiesConfigured() {
+        var direct = new LoginThrottle(registry, true, new String[]{""}, 1024, 4, 3, 1, 100, 1);
+        var request = requestFrom("172.17.0.1");
+        request.addHeader("X-Forwarded-For", "203.0.113.9");
+
+        assertEquals("172.17.0.1", direct.clientIp(request));
+    }
+
+    private MockHttpServletRequest requestFrom(String remoteAddr) {
+        var request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
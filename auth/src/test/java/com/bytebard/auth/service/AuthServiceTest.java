@@ -2,11 +2,16 @@ package com.bytebard.auth.service;
 
 import com.bytebard.auth.types.ChangePasswordRequest;
 import com.bytebard.auth.types.LoginRequest;
+import com.bytebard.auth.types.RefreshTokenRequest;
 import com.bytebard.core.api.config.TokenAuthConfig;
+import com.bytebard.core.api.models.Role;
 import com.bytebard.core.api.models.Status;
 import com.bytebard.core.api.models.User;
 import com.bytebard.core.api.repositories.UserRepository;
 import com.bytebard.core.api.security.JwtAuthenticationTokenProvider;
+import com.bytebard.core.api.security.PasswordHashingExecutor;
+import com.bytebard.core.messaging.producer.UserEventsProducer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +23,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -32,6 +41,12 @@ class AuthServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserEventsProducer producer;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     private PasswordEncoder encoder;
 
     private AuthService authService;
@@ -41,8 +56,8 @@ class AuthServiceTest {
     void setup() {
         mocksCloseable = MockitoAnnotations.openMocks(this);
         encoder = new BCryptPasswordEncoder();
-        authService = new AuthService(provider, config, encoder, userRepository);
-        ReflectionTestUtils.setField(authService, "accessTokenExpiryInHours", 2L);
+        authService = new AuthService(provider, config, new PasswordHashingExecutor(encoder, new SimpleMeterRegistry(), 1, 4, 5000), userRepository, producer, refreshTokenService);
+        ReflectionTestUtils.setField(authService, "accessTokenExpiryInMinutes", 15L);
     }
 
     @AfterEach
@@ -73,17 +88,50 @@ class AuthServiceTest {
         user.setStatus(Status.ACTIVE);
 
         when(provider.authenticate("test@mail.com", "pass")).thenReturn(user);
-        when(config.token(eq(1L), anyLong())).thenReturn("jwt-token");
+        when(config.token(1L, Duration.ofMinutes(15), 0, null, null)).thenReturn("jwt-token");
+        when(refreshTokenService.issue(1L)).thenReturn("refresh-token");
 
         var req = new LoginRequest("test@mail.com", "pass");
         var resp = authService.login(req);
 
         assertEquals("jwt-token", resp.getToken());
-        verify(config).token(eq(1L), anyLong());
+        assertEquals("refresh-token", resp.getRefreshToken());
+        verify(config).token(1L, Duration.ofMinutes(15), 0, null, null);
+    }
+
+    @Test
+    void login_rehashesPassword_whenStoredCostIsLower() {
+        var user = new User();
+        user.setId(1L);
+        user.setStatus(Status.ACTIVE);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("pass"));
+
+        when(provider.authenticate("test@mail.com", "pass")).thenReturn(user);
+        when(config.token(eq(1L), any(Duration.class), eq(0), isNull(), isNull())).thenReturn("jwt-token");
+
+        authService.login(new LoginRequest("test@mail.com", "pass"));
+
+        verify(userRepository).save(argThat(u -> u.getPassword().startsWith("$2a$10$") && encoder.matches("pass", u.getPassword())));
+    }
+
+    @Test
+    void login_embedsRolesAndStatus_whenStateless() {
+        var user = new User();
+        user.setId(1L);
+        user.setStatus(Status.ACTIVE);
+
+        when(provider.authenticate("test@mail.com", "pass")).thenReturn(user);
+        when(config.isStateless()).thenReturn(true);
+        when(userRepository.findRolesByUserId(1L)).thenReturn(List.of(new Role(Role.MANAGER)));
+        when(config.token(eq(1L), any(Duration.class), eq(0), eq(List.of(Role.MANAGER)), eq(Status.ACTIVE))).thenReturn("stateless-token");
+
+        var resp = authService.login(new LoginRequest("test@mail.com", "pass"));
+
+        assertEquals("stateless-token", resp.getToken());
     }
 
     @Test
-    void changePassword_encodesPassword_andActivatesUser() {
+    void changePassword_encodesPassword_activatesUser_andRevokesTokens() {
         var user = new User();
         user.setId(1L);
         user.setStatus(Status.INACTIVE);
@@ -97,6 +145,41 @@ class AuthServiceTest {
         assertTrue(encoder.matches("TestPass11@", user.getPassword()));
         assertEquals(Status.ACTIVE, user.getStatus());
         verify(userRepository).save(user);
+        verify(userRepository).incrementTokenEpoch(1L);
+        verify(refreshTokenService).revokeAll(1L);
+        verify(producer).sendUserUpdatedEvent(1L);
+        verify(producer).sendUserTokensRevokedEvent(1L);
+    }
+
+    @Test
+    void refresh_rotatesTokenAndIssuesAccessToken() {
+        var user = new User();
+        user.setId(1L);
+        user.setStatus(Status.ACTIVE);
+
+        when(refreshTokenService.rotate("old-refresh")).thenReturn(new RefreshTokenService.Rotation(1L, "new-refresh"));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(config.token(1L, Duration.ofMinutes(15), 0, null, null)).thenReturn("jwt-token");
+
+        var resp = authService.refresh(new RefreshTokenRequest("old-refresh"));
+
+        assertEquals("jwt-token", resp.getToken());
+        assertEquals("new-refresh", resp.getRefreshToken());
+        verify(provider, never()).authenticate(any(), any());
+    }
+
+    @Test
+    void refresh_revokesSessions_whenUserInactive() {
+        var user = new User();
+        user.setId(1L);
+        user.setStatus(Status.INACTIVE);
+
+        when(refreshTokenService.rotate("old-refresh")).thenReturn(new RefreshTokenService.Rotation(1L, "new-refresh"));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        var ex = assertThrows(HttpClientErrorException.class, () -> authService.refresh(new RefreshTokenRequest("old-refresh")));
+        assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatusCode());
+        verify(refreshTokenService).revokeAll(1L);
     }
 
     @Test
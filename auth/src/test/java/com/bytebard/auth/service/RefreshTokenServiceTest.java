@@ -0,0 +1,112 @@
+package com.bytebard.auth.service;
+
+import com.bytebard.core.api.models.RefreshToken;
+import com.bytebard.core.api.repositories.RefreshTokenRepository;
+import com.bytebard.utils.DateUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenService refreshTokenService;
+    private AutoCloseable mocksCloseable;
+
+    @BeforeEach
+    void setup() {
+        mocksCloseable = MockitoAnnotations.openMocks(this);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenExpiryInDays", 14L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (mocksCloseable != null) {
+            mocksCloseable.close();
+        }
+    }
+
+    @Test
+    void issue_storesOnlyTheHashOfTheToken() {
+        var token = refreshTokenService.issue(1L);
+
+        var captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertNotEquals(token, captor.getValue().getTokenHash());
+        assertEquals(64, captor.getValue().getTokenHash().length());
+        assertEquals(1L, captor.getValue().getUserId());
+    }
+
+    @Test
+    void rotate_marksTokenUsed_andIssuesTokenInSameFamily() {
+        var family = UUID.randomUUID();
+        var token = refreshTokenService.issue(1L);
+        var captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        var stored = captor.getValue();
+        ReflectionTestUtils.setField(stored, "id", 5L);
+        ReflectionTestUtils.setField(stored, "familyId", family);
+
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(5L), any())).thenReturn(1);
+
+        var rotation = refreshTokenService.rotate(token);
+
+        assertEquals(1L, rotation.userId());
+        assertNotEquals(token, rotation.refreshToken());
+        verify(refreshTokenRepository, times(2)).save(captor.capture());
+        assertEquals(family, captor.getValue().getFamilyId());
+    }
+
+    @Test
+    void rotate_carriesFamilyExpiry_ontoNewToken() {
+        var expiresAt = DateUtils.now().plusHours(3);
+        var stored = new RefreshToken(1L, UUID.randomUUID(), "hash", expiresAt);
+        ReflectionTestUtils.setField(stored, "id", 5L);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(5L), any())).thenReturn(1);
+
+        refreshTokenService.rotate("token");
+
+        var captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals(expiresAt, captor.getValue().getExpiresAt());
+    }
+
+    @Test
+    void rotate_revokesFamily_whenTokenIsReused() {
+        var family = UUID.randomUUID();
+        var stored = new RefreshToken(1L, family, "hash", DateUtils.now().plusDays(1));
+        stored.setUsedAt(DateUtils.now());
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+
+        var ex = assertThrows(HttpClientErrorException.class, () -> refreshTokenService.rotate("reused"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatusCode());
+        verify(refreshTokenRepository).deleteByFamilyId(family);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_rejectsUnknownToken() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        var ex = assertThrows(HttpClientErrorException.class, () -> refreshTokenService.rotate("unknown"));
+        assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatusCode());
+    }
+}
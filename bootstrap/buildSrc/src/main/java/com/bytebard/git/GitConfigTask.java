@@ -176,9 +176,11 @@ public abstract class GitConfigTask extends DefaultTask {
                 ),
                 "exchanges", Map.of(
                         "main", m.get("RABBITMQ_MAIN_EXCHANGE"),
+                        "topic", m.getOrDefault("RABBITMQ_TOPIC_EXCHANGE", m.get("RABBITMQ_MAIN_EXCHANGE") + ".topic"),
                         "dlx", m.get("RABBITMQ_DL_EXCHANGE")
                 ),
-                "listeners", Map.of("enabled", "true")
+                "listeners", Map.of("enabled", "true"),
+                "codec", Map.of("outbound", m.getOrDefault("RABBITMQ_CODEC_OUTBOUND", "json"))
         );
 
         Map<String, Object> spring = new LinkedHashMap<>();
@@ -195,7 +197,7 @@ public abstract class GitConfigTask extends DefaultTask {
                 )
         ));
         application.put("management",
-                Map.of("endpoints", Map.of("web", Map.of("exposure", Map.of("include", "health,info"))))
+                Map.of("endpoints", Map.of("web", Map.of("exposure", Map.of("include", "health,info,metrics"))))
         );
 
         writeYamlFile(dir, "application.yml", yaml, application);
@@ -224,14 +226,29 @@ public abstract class GitConfigTask extends DefaultTask {
 
         Map<String, Object> spring = Map.of(
                 "application", Map.of("name", "auth-service"),
+                "rabbitmq", Map.of(
+                        "outbox", outbox(m),
+                        // The auth queue only acts on user.created; instance queues stay on the fanout until their listeners move.
+                        "bindings", Map.of("events", m.getOrDefault("AUTH_EVENTS_BINDINGS", "user.created"))
+                ),
                 "datasource", datasource,
                 "jpa", jpa,
                 "jwt", Map.of(
                         "secret", m.get("JWT_SECRET"),
                         "expiry-in-hours", m.get("JWT_EXPIRATION_IN_HOURS"),
-                        "issuer", m.get("JWT_ISSUER")
+                        "issuer", m.get("JWT_ISSUER"),
+                        "access-token", Map.of("expiry-minutes", m.getOrDefault("JWT_ACCESS_TOKEN_EXPIRY_MINUTES", "15")),
+                        "refresh-token", Map.of("expiry-days", m.getOrDefault("JWT_REFRESH_TOKEN_EXPIRY_DAYS", "14"))
                 ),
-                "auth", Map.of("default-password", m.get("DEFAULT_PASSWORD"))
+                "auth", Map.of(
+                        "default-password", m.get("DEFAULT_PASSWORD"),
+                        "identity-header", identityHeader(m),
+                        // Calibration is opt-in and only offered here, where logins pay the hashing cost.
+                        "bcrypt", Map.of(
+                                "strength", m.getOrDefault("BCRYPT_STRENGTH", "10"),
+                                "calibrate", m.getOrDefault("BCRYPT_CALIBRATE", "false")
+                        )
+                )
         );
 
         auth.put("spring", spring);
@@ -282,6 +299,8 @@ public abstract class GitConfigTask extends DefaultTask {
 
         Map<String, Object> spring = new LinkedHashMap<>();
         spring.put("application", Map.of("name", "gateway-service"));
+        spring.put("jwt", Map.of("secret", m.get("JWT_SECRET")));
+        spring.put("auth", Map.of("identity-header", identityHeader(m)));
         spring.put("main", Map.of("web-application-type", "reactive"));
         spring.put("webflux", Map.of(
                 "static-path-pattern", "/static/**"
@@ -363,7 +382,10 @@ public abstract class GitConfigTask extends DefaultTask {
 
         Map<String, Object> spring = Map.of(
                 "application", Map.of("name", "employee-service"),
-                "rabbitmq", Map.of("listeners", Map.of("enabled", "false")),
+                "rabbitmq", Map.of(
+                        "listeners", Map.of("enabled", "false"),
+                        "outbox", outbox(m)
+                ),
                 "datasource", datasource,
                 "jpa", jpa,
                 "jwt", Map.of(
@@ -371,7 +393,10 @@ public abstract class GitConfigTask extends DefaultTask {
                         "expiry-in-hours", m.get("JWT_EXPIRATION_IN_HOURS"),
                         "issuer", m.get("JWT_ISSUER")
                 ),
-                "auth", Map.of("default-password", m.get("DEFAULT_PASSWORD"))
+                "auth", Map.of(
+                        "default-password", m.get("DEFAULT_PASSWORD"),
+                        "identity-header", identityHeader(m)
+                )
         );
 
         emp.put("spring", spring);
@@ -380,6 +405,32 @@ public abstract class GitConfigTask extends DefaultTask {
         writeYamlFile(dir, "employee-service.yml", yaml, emp);
     }
 
+    private Map<String, Object> outbox(Map<String, String> m) {
+        return Map.of(
+                "enabled", m.getOrDefault("OUTBOX_ENABLED", "true"),
+                "batch-size", m.getOrDefault("OUTBOX_BATCH_SIZE", "100"),
+                "poll-interval-ms", m.getOrDefault("OUTBOX_POLL_INTERVAL_MS", "200"),
+                "claim-timeout-ms", m.getOrDefault("OUTBOX_CLAIM_TIMEOUT_MS", "30000")
+        );
+    }
+
+    private Map<String, Object> identityHeader(Map<String, String> m) {
+        return Map.of(
+                // Off by default: the header is only safe once services are unreachable except through the gateway.
+                "enabled", m.getOrDefault("IDENTITY_HEADER_ENABLED", "false"),
+                "secret", required(m, "IDENTITY_HEADER_SECRET"),
+                "max-age-seconds", m.getOrDefault("IDENTITY_HEADER_MAX_AGE_SECONDS", "30")
+        );
+    }
+
+    private static String required(Map<String, String> m, String key) {
+        String value = m.get(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException(key + " is missing from the generated properties; regenerate them");
+        }
+        return value;
+    }
+
     private void writeDiscoveryServiceYaml(File dir, Yaml yaml, Map<String, String> m) throws Exception {
         Map<String, Object> disc = new LinkedHashMap<>();
 
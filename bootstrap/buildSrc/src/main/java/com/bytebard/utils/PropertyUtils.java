@@ -16,6 +16,8 @@ public class PropertyUtils {
         p.setProperty("JWT_SECRET", randomHex(32));
         p.setProperty("JWT_EXPIRATION_IN_HOURS", "24");
         p.setProperty("JWT_ISSUER", "emp-service");
+        // Signs the gateway's identity header; kept apart from the JWT key so neither can stand in for the other.
+        p.setProperty("IDENTITY_HEADER_SECRET", randomHex(32));
 
         p.setProperty("DB_PASSWORD", "emp_db");
         p.setProperty("DB_USERNAME", "emp_db");
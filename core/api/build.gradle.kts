@@ -1,6 +1,7 @@
 plugins {
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency)
+    alias(libs.plugins.jmh)
 }
 
 dependencyManagement {
@@ -14,6 +15,7 @@ dependencyManagement {
 
 dependencies {
     api(project(":core:utils"))
+    implementation(project(":core:messaging"))
     api(libs.spring.boot.starter.jpa)
     runtimeOnly(libs.postgres.core)
     api(libs.spring.boot.starter.web)
@@ -21,10 +23,25 @@ dependencies {
     api(libs.spring.boot.starter.security)
     api(libs.jwt.core)
     api(libs.spring.boot.starter.amqp)
+    api(libs.caffeine)
+    api(libs.micrometer.core)
     testImplementation(libs.spring.boot.starter.test)
     testImplementation(libs.h2.database)
+    testImplementation(libs.testcontainers.junit)
+    testImplementation(libs.testcontainers.postgresql)
+    testImplementation(libs.flyway.core)
+    testImplementation(libs.flyway.database)
 }
 
 tasks.test {
     useJUnitPlatform()
+    // PostgreSQL-backed tests apply the real migrations instead of relying on Hibernate's H2 schema.
+    systemProperty("flyway.migrations", rootProject.file("flyway/migrations").absolutePath)
+}
+
+jmh {
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+    profilers.add("gc")
 }
@@ -0,0 +1,60 @@
+package com.bytebard.core.api.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TokenVerificationBenchmark {
+
+    private TokenAuthConfig config;
+    private String token;
+    private String forgedToken;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = new SecretKeySpec("benchmark-secret-benchmark-secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        config = new TokenAuthConfig(key, 10_000, 30);
+        token = config.token(42L, Duration.ofHours(1), 0, null, null);
+        forgedToken = token.substring(0, token.lastIndexOf('.') + 1) + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+        config.getClaims(token);
+    }
+
+    @Benchmark
+    public Claims cachedVerification() {
+        return config.getClaims(token);
+    }
+
+    @Benchmark
+    public Claims uncachedVerification() {
+        return config.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean cachedRejection() {
+        try {
+            config.getClaims(forgedToken);
+            return true;
+        } catch (JwtException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean uncachedRejection() {
+        try {
+            config.parseClaims(forgedToken);
+            return true;
+        } catch (JwtException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.bytebard.core.api.repositories;
+
+import com.bytebard.core.api.config.PersistenceJpaConfigTest;
+import com.bytebard.core.api.models.Status;
+import com.bytebard.core.api.models.User;
+import com.bytebard.utils.DateUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// A JDBC batch size of 1 reproduces the old IDENTITY behaviour, where every persist executed its own INSERT.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserBulkInsertBenchmark {
+    private static final int USERS = 1_000;
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    private AnnotationConfigApplicationContext context;
+    private EntityManager em;
+    private TransactionTemplate tx;
+    private long run;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(PersistenceJpaConfigTest.class);
+        em = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long insertUsers() {
+        var prefix = "bulk" + run++ + "-";
+        return tx.execute(status -> {
+            em.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            long last = 0;
+            for (int i = 0; i < USERS; i++) {
+                var user = new User("first" + i, "last" + i, "hash", prefix + i + "@ex.com", Status.INACTIVE, DateUtils.now());
+                em.persist(user);
+                last = user.getId();
+            }
+            em.flush();
+            status.setRollbackOnly();
+            return last;
+        });
+    }
+}
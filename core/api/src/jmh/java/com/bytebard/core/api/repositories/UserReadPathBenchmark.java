@@ -0,0 +1,80 @@
+package com.bytebard.core.api.repositories;
+
+import com.bytebard.core.api.config.PersistenceJpaConfigTest;
+import com.bytebard.core.api.mappers.UserMapper;
+import com.bytebard.core.api.models.Status;
+import com.bytebard.core.api.models.User;
+import com.bytebard.core.api.types.UserDTO;
+import com.bytebard.utils.DateUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Run with the gc profiler (enabled in build.gradle.kts) and compare gc.alloc.rate.norm, the bytes allocated per request.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserReadPathBenchmark {
+    private static final int USERS = 1_000;
+    private static final int PAGE_SIZE = 50;
+
+    private AnnotationConfigApplicationContext context;
+    private UserRepository userRepository;
+    private EntityManager em;
+    private TransactionTemplate tx;
+    private long userId;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(PersistenceJpaConfigTest.class);
+        userRepository = context.getBean(UserRepository.class);
+        em = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        var transactionManager = context.getBean(PlatformTransactionManager.class);
+        var passwordHash = new BCryptPasswordEncoder(4).encode("Password@123");
+        userId = new TransactionTemplate(transactionManager).execute(status -> userRepository.saveAll(IntStream.range(0, USERS)
+                .mapToObj(i -> new User("first" + i, "last" + i, passwordHash, "bench" + i + "@ex.com", Status.ACTIVE, DateUtils.now()))
+                .toList()).get(USERS / 2).getId());
+        tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDTO getByIdEntity() {
+        return tx.execute(status -> UserMapper.toUserDTO(em.find(User.class, userId)));
+    }
+
+    @Benchmark
+    public UserDTO getByIdProjection() {
+        return tx.execute(status -> userRepository.findDtoById(userId).orElseThrow());
+    }
+
+    @Benchmark
+    public List<UserDTO> listEntity() {
+        return tx.execute(status -> em.createQuery("SELECT u FROM User u", User.class)
+                .setMaxResults(PAGE_SIZE + 1)
+                .getResultList()
+                .stream()
+                .map(UserMapper::toUserDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<UserDTO> listProjection() {
+        return tx.execute(status -> userRepository.findDtoSlice(PageRequest.of(0, PAGE_SIZE)).getContent());
+    }
+}
@@ -0,0 +1,53 @@
+package com.bytebard.core.api.cache;
+
+import com.bytebard.core.api.repositories.TableStatisticsRepository;
+import com.bytebard.core.api.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Approximate list totals. Entries refresh in the background once stale, so callers never wait on a COUNT after the first load.
+@Component
+public class ListTotalsCache {
+    private final LoadingCache<String, Long> tableTotals;
+    private final LoadingCache<Long, Long> managerTotals;
+
+    public ListTotalsCache(
+            TableStatisticsRepository statisticsRepository,
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${spring.api.totals.refresh-seconds:60}") long refreshSeconds,
+            @Value("${spring.api.totals.max-size:10000}") long maxSize
+    ) {
+        var refresh = Duration.ofSeconds(refreshSeconds);
+        this.tableTotals = Caffeine.newBuilder()
+                .refreshAfterWrite(refresh)
+                .recordStats()
+                .build(statisticsRepository::estimateRowCount);
+        this.managerTotals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(refresh)
+                .expireAfterWrite(refresh.multipliedBy(10))
+                .recordStats()
+                .build(userRepository::countUsersInSameDepartmentsAsManager);
+        CaffeineCacheMetrics.monitor(meterRegistry, tableTotals, "api.totals.tables");
+        CaffeineCacheMetrics.monitor(meterRegistry, managerTotals, "api.totals.managers");
+    }
+
+    public long users() {
+        return tableTotals.get(TableStatisticsRepository.USERS);
+    }
+
+    public long departments() {
+        return tableTotals.get(TableStatisticsRepository.DEPARTMENTS);
+    }
+
+    public long usersVisibleTo(long managerId) {
+        return managerTotals.get(managerId);
+    }
+}
@@ -0,0 +1,74 @@
+package com.bytebard.core.api.cache;
+
+import com.bytebard.core.api.repositories.UserRepository;
+import com.bytebard.core.api.security.AuthPrincipal;
+import com.bytebard.core.api.security.RoleRegistry;
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class PrincipalCache {
+    private final UserRepository userRepository;
+    private final RoleRegistry roleRegistry;
+    private final Cache<Long, AuthPrincipal> cache;
+
+    public PrincipalCache(
+            UserRepository userRepository,
+            RoleRegistry roleRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${spring.auth.principal-cache.max-size:10000}") long maxSize,
+            @Value("${spring.auth.principal-cache.ttl-seconds:60}") long ttlSeconds
+    ) {
+        this.userRepository = userRepository;
+        this.roleRegistry = roleRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.principals");
+    }
+
+    public Optional<AuthPrincipal> get(Long userId) {
+        return Optional.ofNullable(cache.get(userId, this::load));
+    }
+
+    private AuthPrincipal load(Long userId) {
+        var rows = userRepository.findStatusAndRoleIdsById(userId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        int roleBits = 0;
+        for (var row : rows) {
+            if (row[1] != null) {
+                roleBits |= roleRegistry.bitOf(((Number) row[1]).longValue());
+            }
+        }
+        return new AuthPrincipal(userId, (String) rows.get(0)[0], roleBits);
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    @EventListener
+    public void onUserEvent(UserEventMessage message) {
+        if (message.userId() == null || message.eventType() == null) {
+            return;
+        }
+        switch (message.eventType()) {
+            case Events.USER_UPDATED, Events.USER_DELETED -> invalidate(message.userId());
+            default -> {}
+        }
+    }
+}
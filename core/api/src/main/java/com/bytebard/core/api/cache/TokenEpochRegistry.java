@@ -0,0 +1,52 @@
+package com.bytebard.core.api.cache;
+
+import com.bytebard.core.api.repositories.UserRepository;
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import com.bytebard.utils.LongIntHashMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TokenEpochRegistry {
+    static final int REVOKED = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final LongIntHashMap epochs = new LongIntHashMap(1024);
+
+    public TokenEpochRegistry(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        Gauge.builder("auth.token.epochs", epochs, LongIntHashMap::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        for (var row : userRepository.findNonZeroTokenEpochs()) {
+            epochs.putMax(((Number) row[0]).longValue(), ((Number) row[1]).intValue());
+        }
+    }
+
+    public boolean isCurrent(long userId, int tokenEpoch) {
+        return tokenEpoch >= epochs.get(userId, 0);
+    }
+
+    public void advance(long userId, int epoch) {
+        epochs.putMax(userId, epoch);
+    }
+
+    @EventListener
+    public void onUserEvent(UserEventMessage message) {
+        if (message.userId() == null || message.eventType() == null) {
+            return;
+        }
+        switch (message.eventType()) {
+            case Events.USER_TOKENS_REVOKED -> userRepository.findTokenEpochById(message.userId())
+                    .ifPresentOrElse(epoch -> advance(message.userId(), epoch), () -> advance(message.userId(), REVOKED));
+            case Events.USER_DELETED -> advance(message.userId(), REVOKED);
+            default -> {}
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package com.bytebard.core.api.config;
 
+import com.bytebard.core.api.cache.PrincipalCache;
+import com.bytebard.core.api.cache.TokenEpochRegistry;
 import com.bytebard.core.api.context.AuthContext;
 import com.bytebard.core.api.filters.TokenAuthFilter;
-import com.bytebard.core.api.repositories.UserRepository;
+import com.bytebard.core.api.security.BCryptCalibrator;
+import com.bytebard.utils.IdentityHeaderCodec;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
@@ -20,6 +29,7 @@ import org.springframework.web.servlet.HandlerExceptionResolver;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
 @Configuration
@@ -30,6 +40,8 @@ import java.util.List;
         "com.bytebard.core.api.models",
 })
 public class DefaultConfig {
+    private static final Logger log = LoggerFactory.getLogger(DefaultConfig.class);
+
     @Value("${spring.jwt.secret}")
     private String secretKey;
 
@@ -38,14 +50,32 @@ public class DefaultConfig {
         return new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
     }
 
+    // A fixed cost by default so every node and test context agrees; only the auth service opts into calibration.
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${spring.auth.bcrypt.strength:10}") int strength,
+            @Value("${spring.auth.bcrypt.calibrate:false}") boolean calibrate,
+            @Value("${spring.auth.bcrypt.target-latency-ms:250}") long targetLatencyMs
+    ) {
+        if (calibrate) {
+            strength = BCryptCalibrator.calibrate(Duration.ofMillis(targetLatencyMs), BCryptCalibrator.MIN_STRENGTH, BCryptCalibrator.MAX_STRENGTH);
+        }
+        log.info("Hashing passwords with BCrypt cost {}{}", strength, calibrate ? " (calibrated)" : "");
+        return new BCryptPasswordEncoder(strength);
+    }
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @ConditionalOnProperty(name = "spring.auth.identity-header.enabled", havingValue = "true")
+    public IdentityHeaderCodec identityHeaderCodec(
+            @Value("${spring.auth.identity-header.secret}") String secret,
+            @Value("${spring.auth.identity-header.max-age-seconds:30}") long maxAgeSeconds
+    ) {
+        return new IdentityHeaderCodec(secret, Duration.ofSeconds(maxAgeSeconds));
     }
 
     @Bean("tokenAuthFilter")
-    public OncePerRequestFilter authFilter(TokenAuthConfig config, AuthContext ctx, UserRepository repository, @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
-        return new TokenAuthFilter(config, ctx, repository, exceptionResolver);
+    public OncePerRequestFilter authFilter(TokenAuthConfig config, AuthContext ctx, PrincipalCache principalCache, TokenEpochRegistry tokenEpochs, @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver, ObjectProvider<IdentityHeaderCodec> identityCodec) {
+        return new TokenAuthFilter(config, ctx, principalCache, tokenEpochs, exceptionResolver, identityCodec.getIfAvailable());
     }
 
     @Bean
@@ -58,4 +88,14 @@ public class DefaultConfig {
         source.registerCorsConfiguration("/**", configuration);
         return source;
     }
+
+    // Pairs with the pooled entity sequences: ids are known before flush, so inserts and updates go out as JDBC batches.
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(@Value("${spring.jpa.jdbc.batch-size:50}") int batchSize) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+        };
+    }
 }
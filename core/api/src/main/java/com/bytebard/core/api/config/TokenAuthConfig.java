@@ -1,9 +1,15 @@
 package com.bytebard.core.api.config;
 
 import com.bytebard.utils.DateUtils;
+import com.bytebard.utils.TokenClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
@@ -11,28 +17,66 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 
 import javax.crypto.SecretKey;
-import java.time.temporal.ChronoUnit;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class TokenAuthConfig {
 
+    public static final String ROLES_CLAIM = TokenClaims.ROLES;
+    public static final String STATUS_CLAIM = TokenClaims.STATUS;
+    public static final String EPOCH_CLAIM = TokenClaims.EPOCH;
+
     @Value("${spring.jwt.issuer}")
     private String issuer;
 
+    @Value("${spring.jwt.stateless.enabled:false}")
+    private boolean stateless;
+
+    @Value("${spring.jwt.stateless.max-staleness-minutes:15}")
+    private long maxStalenessMinutes;
+
     private SecretKey secretKey;
+    private final JwtParser parser;
 
-    public TokenAuthConfig(SecretKey secretKey) {
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final Cache<String, Boolean> rejectedTokens;
+
+    public TokenAuthConfig(
+            SecretKey secretKey,
+            @Value("${spring.jwt.cache.max-size:10000}") long cacheSize,
+            @Value("${spring.jwt.cache.rejected-ttl-seconds:30}") long rejectedTtlSeconds
+    ) {
         this.secretKey = secretKey;
+        this.parser = Jwts.parser()
+                .setSigningKey(secretKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+        this.rejectedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofSeconds(rejectedTtlSeconds))
+                .build();
     }
 
-    public String token(Long subject, Long expirationInHours) {
+    public String token(Long subject, Duration ttl, int epoch, Collection<String> roles, String status) {
         var today = DateUtils.now();
-        var expiryDate = DateUtils.add(today, expirationInHours, ChronoUnit.HOURS);
-        Claims claims = Jwts.claims().subject(String.valueOf(subject))
+        var expiryDate = today.plus(ttl);
+        var builder = Jwts.claims().subject(String.valueOf(subject))
                 .issuedAt(DateUtils.toDate(today))
                 .issuer(issuer)
-                .expiration(DateUtils.toDate(expiryDate))
-                .build();
+                .expiration(DateUtils.toDate(expiryDate));
+        if (epoch > 0) {
+            builder.add(EPOCH_CLAIM, epoch);
+        }
+        if (roles != null && status != null) {
+            builder.add(ROLES_CLAIM, String.join(",", roles))
+                    .add(STATUS_CLAIM, status);
+        }
+        Claims claims = builder.build();
 
         return Jwts.builder()
                 .claims(claims)
@@ -41,37 +85,97 @@ public class TokenAuthConfig {
                 .compact();
     }
 
-    public String extractUserId(String token) {
+    public Claims extractClaims(String token) {
         try {
-            return getClaims(token).getSubject();
-        } catch (JwtException e) {
+            return getClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
             throw new HttpClientErrorException(HttpStatus.FORBIDDEN, "Invalid token");
         }
     }
 
+    public int epochOf(Claims claims) {
+        var epoch = claims.get(EPOCH_CLAIM, Integer.class);
+        return epoch == null ? 0 : epoch;
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    public boolean hasFreshPrincipalClaims(Claims claims) {
+        if (!stateless || claims.getIssuedAt() == null) {
+            return false;
+        }
+        if (claims.get(ROLES_CLAIM, String.class) == null || claims.get(STATUS_CLAIM, String.class) == null) {
+            return false;
+        }
+        return isFresh(claims.getIssuedAt().getTime());
+    }
+
+    public boolean isFresh(long issuedAtMillis) {
+        var ageInMillis = System.currentTimeMillis() - issuedAtMillis;
+        return ageInMillis <= TimeUnit.MINUTES.toMillis(maxStalenessMinutes);
+    }
+
     public String extractSignature(String token) {
-        try {
-            String[] parts = token.split("\\.");
-            return parts.length == 3 ? parts[2] : null;
-        } catch (Exception e) {
+        if (token == null) {
+            return null;
+        }
+        int first = token.indexOf('.');
+        int last = token.lastIndexOf('.');
+        if (first < 0 || first == last || token.indexOf('.', first + 1) != last || last == token.length() - 1) {
             return null;
         }
+        return token.substring(last + 1);
     }
 
-    public boolean validateToken(String token) {
+    public Claims getClaims(String token) {
+        var signature = extractSignature(token);
+        if (signature == null) {
+            throw new MalformedJwtException("Token must contain a header, payload and signature");
+        }
+
+        var verified = verifiedTokens.getIfPresent(signature);
+        if (verified != null && verified.token().equals(token) && verified.expiresAtMillis() > System.currentTimeMillis()) {
+            return verified.claims();
+        }
+        if (rejectedTokens.getIfPresent(token) != null) {
+            throw new JwtException("Token was recently rejected");
+        }
+
+        Claims claims;
         try {
-            getClaims(token);
-            return true;
+            claims = parseClaims(token);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            rejectedTokens.put(token, Boolean.TRUE);
+            throw e;
+        }
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(signature, new VerifiedToken(token, claims, claims.getExpiration().getTime()));
         }
+        return claims;
     }
 
-    private Claims getClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private record VerifiedToken(String token, Claims claims, long expiresAtMillis) {}
+
+    private static class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAtMillis() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
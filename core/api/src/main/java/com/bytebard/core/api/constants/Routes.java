@@ -8,6 +8,12 @@ public final class Routes {
     public static final String AUTH = API_V1 + "/auth";
     public static final String LOGIN = "/login";
     public static final String CHANGE_PASSWORD = "/change-password";
+    public static final String REFRESH = "/refresh";
     public static final String DEPARTMENTS = API_V1 + "/departments";
     public static final String USERS = API_V1 + "/users";
+    public static final String BATCH = "/batch";
+    public static final String EXPORT = "/export";
+
+    public static final String HAS_NEXT_HEADER = "X-Has-Next";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
 }
@@ -1,8 +1,7 @@
 package com.bytebard.core.api.context;
 
-import com.bytebard.core.api.models.User;
+import com.bytebard.core.api.security.AuthPrincipal;
 import com.bytebard.core.api.security.JwtAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
@@ -10,10 +9,10 @@ import java.util.List;
 
 @Component
 public class AuthContext {
-    public User getCurrentUser() {
+    public AuthPrincipal getCurrentUser() {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication instanceof JwtAuthenticationToken) {
-            return (User) authentication.getPrincipal();
+            return (AuthPrincipal) authentication.getPrincipal();
         }
         return null;
     }
@@ -30,12 +29,8 @@ public class AuthContext {
         SecurityContextHolder.clearContext();
     }
 
-    public void setContextProps(User user, String token) {
-        List<SimpleGrantedAuthority> roles = user.getRoles()
-                .stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName()))
-                .toList();
-        var authentication = new JwtAuthenticationToken(user, token, roles, true);
+    public void setContextProps(AuthPrincipal principal, String token) {
+        var authentication = new JwtAuthenticationToken(principal, token, principal.authorities(), true);
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
@@ -1,8 +1,12 @@
 package com.bytebard.core.api.filters;
 
+import com.bytebard.core.api.cache.PrincipalCache;
+import com.bytebard.core.api.cache.TokenEpochRegistry;
 import com.bytebard.core.api.config.TokenAuthConfig;
 import com.bytebard.core.api.context.AuthContext;
-import com.bytebard.core.api.repositories.UserRepository;
+import com.bytebard.core.api.security.AuthPrincipal;
+import com.bytebard.utils.IdentityHeaderCodec;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,23 +14,34 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.apache.http.HttpHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 public class TokenAuthFilter extends OncePerRequestFilter {
     private final Logger log = LoggerFactory.getLogger(getClass());
     private final TokenAuthConfig config;
     private final AuthContext authContext;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final TokenEpochRegistry tokenEpochs;
     private final HandlerExceptionResolver exceptionResolver;
+    private final IdentityHeaderCodec identityCodec;
 
-    public TokenAuthFilter(TokenAuthConfig config, AuthContext authContext, UserRepository userRepository, HandlerExceptionResolver exceptionResolver) {
+    public TokenAuthFilter(TokenAuthConfig config, AuthContext authContext, PrincipalCache principalCache, TokenEpochRegistry tokenEpochs, HandlerExceptionResolver exceptionResolver) {
+        this(config, authContext, principalCache, tokenEpochs, exceptionResolver, null);
+    }
+
+    public TokenAuthFilter(TokenAuthConfig config, AuthContext authContext, PrincipalCache principalCache, TokenEpochRegistry tokenEpochs, HandlerExceptionResolver exceptionResolver, IdentityHeaderCodec identityCodec) {
         this.config = config;
         this.authContext = authContext;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.tokenEpochs = tokenEpochs;
         this.exceptionResolver = exceptionResolver;
+        this.identityCodec = identityCodec;
     }
 
     @Override
@@ -35,12 +50,28 @@ public class TokenAuthFilter extends OncePerRequestFilter {
         try {
             if (authorization != null && authorization.startsWith("Bearer ")) {
                 var token = authorization.replace("Bearer ", "");
-                var userId = config.extractUserId(token);
-                if (userId != null) {
-                    var user = userRepository.findWithRolesById(Long.valueOf(userId));
-                    user.ifPresent(value -> authContext.setContextProps(value, token));
+                var identity = identityCodec == null ? null : identityCodec.decode(request.getHeader(IdentityHeaderCodec.HEADER));
+                if (identity != null && identity.isBoundTo(token)) {
+                    checkEpoch(identity.userId(), identity.tokenEpoch());
+                    authenticate(identity, token);
+                } else {
+                    var claims = config.extractClaims(token);
+                    if (claims.getSubject() != null) {
+                        checkEpoch(Long.parseLong(claims.getSubject()), config.epochOf(claims));
+                    }
+                    if (config.hasFreshPrincipalClaims(claims)) {
+                        authContext.setContextProps(fromClaims(claims), token);
+                    } else if (claims.getSubject() != null) {
+                        var user = principalCache.get(Long.valueOf(claims.getSubject()));
+                        user.ifPresent(value -> authContext.setContextProps(value, token));
+                    }
                 }
             }
+        } catch (HttpClientErrorException e) {
+            log.debug("Rejected bearer token: {}", e.getStatusText());
+            authContext.clear();
+            exceptionResolver.resolveException(request, response, null, e);
+            return;
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             authContext.clear();
@@ -52,4 +83,27 @@ public class TokenAuthFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private void checkEpoch(long userId, int tokenEpoch) {
+        if (!tokenEpochs.isCurrent(userId, tokenEpoch)) {
+            throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED, "Token has been revoked");
+        }
+    }
+
+    private void authenticate(IdentityHeaderCodec.Identity identity, String token) {
+        var trustRoles = config.isStateless()
+                && identity.status() != null
+                && !identity.roles().isEmpty()
+                && config.isFresh(identity.tokenIssuedAtMillis());
+        if (trustRoles) {
+            authContext.setContextProps(AuthPrincipal.of(identity.userId(), identity.status(), identity.roles()), token);
+        } else {
+            principalCache.get(identity.userId()).ifPresent(value -> authContext.setContextProps(value, token));
+        }
+    }
+
+    private AuthPrincipal fromClaims(Claims claims) {
+        var roles = claims.get(TokenAuthConfig.ROLES_CLAIM, String.class);
+        return AuthPrincipal.of(Long.parseLong(claims.getSubject()), claims.get(TokenAuthConfig.STATUS_CLAIM, String.class), Arrays.asList(roles.split(",")));
+    }
 }
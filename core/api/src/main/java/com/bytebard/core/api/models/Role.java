@@ -11,7 +11,8 @@ public class Role {
     public static final String EMPLOYEE = "EMPLOYEE";
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "roles_id_seq")
+    @SequenceGenerator(name = "roles_id_seq", sequenceName = "roles_id_seq", allocationSize = 50)
     private long id;
 
     @Column(nullable = false, unique = true)
@@ -11,7 +11,8 @@ import java.util.Set;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "first_name")
@@ -32,6 +33,9 @@ public class User {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    @Column(name = "token_epoch", nullable = false)
+    private int tokenEpoch;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "user_roles",
@@ -123,6 +127,14 @@ public class User {
         this.roles = roles;
     }
 
+    public int getTokenEpoch() {
+        return tokenEpoch;
+    }
+
+    public void setTokenEpoch(int tokenEpoch) {
+        this.tokenEpoch = tokenEpoch;
+    }
+
     public String getPassword() {
         return password;
     }
@@ -6,7 +6,7 @@ import java.io.Serializable;
 import java.util.Objects;
 
 @Entity
-@Table(name = "user_departments")
+@Table(name = "user_departments", indexes = @Index(name = "idx_user_departments_department_user", columnList = "department_id, user_id"))
 @IdClass(UserDepartment.UserDepartmentId.class)
 public class UserDepartment {
 
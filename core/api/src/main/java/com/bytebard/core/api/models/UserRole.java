@@ -6,7 +6,7 @@ import java.io.Serializable;
 import java.util.Objects;
 
 @Entity
-@Table(name = "user_roles")
+@Table(name = "user_roles", indexes = @Index(name = "idx_user_roles_role_user", columnList = "role_id, user_id"))
 @IdClass(UserRole.UserRoleId.class)
 public class UserRole {
 
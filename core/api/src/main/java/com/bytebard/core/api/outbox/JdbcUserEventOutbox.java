@@ -0,0 +1,35 @@
+package com.bytebard.core.api.outbox;
+
+import com.bytebard.core.messaging.models.UserEventMessage;
+import com.bytebard.core.messaging.outbox.UserEventOutbox;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+
+@Component
+@ConditionalOnProperty(name = "spring.rabbitmq.outbox.enabled", havingValue = "true")
+public class JdbcUserEventOutbox implements UserEventOutbox {
+    private static final String INSERT_EVENT = "INSERT INTO user_event_outbox(payload, created_at) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public JdbcUserEventOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // Runs on the caller's connection, so the row commits or rolls back with the change that raised the event.
+    @Override
+    public void append(UserEventMessage message) {
+        try {
+            jdbcTemplate.update(INSERT_EVENT, objectMapper.writeValueAsString(message), Timestamp.valueOf(message.timestamp()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize user event " + message.eventType(), e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.bytebard.core.api.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "spring.rabbitmq.outbox.enabled", havingValue = "true")
+public class OutboxConfig {
+}
@@ -0,0 +1,193 @@
+package com.bytebard.core.api.outbox;
+
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import com.bytebard.core.messaging.producer.ConfirmingPublisher;
+import com.bytebard.utils.DateUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@ConditionalOnProperty(name = "spring.rabbitmq.outbox.enabled", havingValue = "true")
+public class UserEventOutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(UserEventOutboxRelay.class);
+
+    // SKIP LOCKED lets several instances claim rows at once without handing out the same ones.
+    private static final String SELECT_BATCH = """
+            SELECT id, payload, created_at FROM user_event_outbox
+            WHERE claimed_until IS NULL OR claimed_until < ?
+            ORDER BY id
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+    private static final String CLAIM = "UPDATE user_event_outbox SET claimed_until = ? WHERE id = ANY(?)";
+    private static final String RELEASE = "UPDATE user_event_outbox SET claimed_until = NULL WHERE id = ANY(?)";
+    private static final String DELETE_RELAYED = "DELETE FROM user_event_outbox WHERE id = ANY(?)";
+    private static final String INSERT_FAILED = "INSERT INTO user_event_outbox_failed(id, payload, created_at, failed_at, error) VALUES (?, ?, ?, ?, ?)";
+
+    private record OutboxRow(long id, String payload, LocalDateTime createdAt) {}
+
+    private record OutboxEvent(OutboxRow row, UserEventMessage message) {}
+
+    private record Claim(List<OutboxEvent> events, int deadLettered) {}
+
+    private record Pending(OutboxRow row, CompletableFuture<Void> confirm) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConfirmingPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer lag;
+    private final DistributionSummary batchSize;
+
+    @Value("${spring.rabbitmq.exchanges.topic:${spring.rabbitmq.exchanges.main}.topic}")
+    private String topicExchange;
+
+    @Value("${spring.rabbitmq.outbox.batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${spring.rabbitmq.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    // Must outlast the confirm timeout, or another instance may publish the same rows while they are still in flight.
+    @Value("${spring.rabbitmq.outbox.claim-timeout-ms:30000}")
+    private long claimTimeoutMs;
+
+    public UserEventOutboxRelay(
+            JdbcTemplate jdbcTemplate,
+            ConfirmingPublisher publisher,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lag = Timer.builder("outbox.relay.lag")
+                .description("Time between an event being written to the outbox and the broker confirming it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Events relayed per outbox batch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${spring.rabbitmq.outbox.poll-interval-ms:200}")
+    public void relay() {
+        int handled;
+        do {
+            handled = relayBatch();
+        } while (handled == maxBatchSize);
+    }
+
+    // Rows are claimed in a short transaction and published after it commits, so no row lock is held while
+    // waiting for confirms.
+    private int relayBatch() {
+        var claim = transactionTemplate.execute(status -> claim());
+        if (claim == null || claim.events().isEmpty()) {
+            return claim == null ? 0 : claim.deadLettered();
+        }
+
+        // Publish the whole batch before waiting so confirms for it arrive in one round trip.
+        var pending = new ArrayList<Pending>(claim.events().size());
+        for (var event : claim.events()) {
+            var message = event.message();
+            pending.add(new Pending(event.row(), publisher.publish(topicExchange, Events.routingKey(message.eventType()), message)));
+        }
+
+        var confirmed = awaitConfirms(pending);
+        if (!confirmed.isEmpty()) {
+            jdbcTemplate.update(DELETE_RELAYED, (Object) confirmed.toArray(Long[]::new));
+        }
+        if (confirmed.size() < pending.size()) {
+            var unconfirmed = pending.stream().map(item -> item.row().id()).filter(id -> !confirmed.contains(id)).toArray(Long[]::new);
+            jdbcTemplate.update(RELEASE, (Object) unconfirmed);
+        }
+        batchSize.record(confirmed.size());
+        return confirmed.size() + claim.deadLettered();
+    }
+
+    // Every row is read before anything is published, so one unreadable row cannot fail a batch that is half sent.
+    private Claim claim() {
+        var now = DateUtils.now();
+        var rows = jdbcTemplate.query(SELECT_BATCH, (rs, rowNum) -> new OutboxRow(
+                rs.getLong("id"),
+                rs.getString("payload"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        ), Timestamp.valueOf(now), maxBatchSize);
+
+        var events = new ArrayList<OutboxEvent>(rows.size());
+        var failed = new ArrayList<Long>();
+        for (var row : rows) {
+            try {
+                events.add(new OutboxEvent(row, read(row)));
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                log.error("Moving unreadable outbox event {} to user_event_outbox_failed: {}", row.id(), e.getMessage());
+                jdbcTemplate.update(INSERT_FAILED, row.id(), row.payload(), Timestamp.valueOf(row.createdAt()), Timestamp.valueOf(now), e.getMessage());
+                failed.add(row.id());
+            }
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.update(DELETE_RELAYED, (Object) failed.toArray(Long[]::new));
+        }
+        if (!events.isEmpty()) {
+            var claimedUntil = Timestamp.valueOf(now.plus(claimTimeoutMs, ChronoUnit.MILLIS));
+            jdbcTemplate.update(CLAIM, claimedUntil, events.stream().map(event -> event.row().id()).toArray(Long[]::new));
+        }
+        return new Claim(events, failed.size());
+    }
+
+    // The publisher retries nacks itself; rows that still fail or time out are released and picked up again,
+    // so delivery is at least once.
+    private List<Long> awaitConfirms(List<Pending> pending) {
+        var confirmed = new ArrayList<Long>(pending.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        for (var item : pending) {
+            try {
+                item.confirm().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                confirmed.add(item.row().id());
+                lag.record(Duration.between(item.row().createdAt(), DateUtils.now()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.warn("Outbox event {} was not confirmed: {}", item.row().id(), e.getCause().getMessage());
+            } catch (TimeoutException e) {
+                log.warn("No confirm for outbox event {}; it will be retried", item.row().id());
+            }
+        }
+        return confirmed;
+    }
+
+    private UserEventMessage read(OutboxRow row) throws JsonProcessingException {
+        var message = objectMapper.readValue(row.payload(), UserEventMessage.class);
+        if (message == null || message.eventType() == null) {
+            throw new IllegalArgumentException("Outbox event " + row.id() + " has no event type");
+        }
+        return message;
+    }
+}
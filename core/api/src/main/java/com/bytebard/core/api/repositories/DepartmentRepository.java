@@ -2,12 +2,17 @@ package com.bytebard.core.api.repositories;
 
 import com.bytebard.core.api.models.Department;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
 
@@ -22,12 +27,13 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
     void deleteUserDepartments(@Param("userId") Long userId);
 
     @Query(value = """
-        SELECT CASE WHEN COUNT(*) > 0 THEN TRUE ELSE FALSE END
-        FROM user_departments ud1
-        JOIN user_departments ud2 ON ud1.department_id = ud2.department_id
-        WHERE ud1.user_id = :empId
-          AND ud2.user_id = :managerId
-          AND ud1.department_id = ud2.department_id
+        SELECT EXISTS (
+            SELECT 1
+            FROM user_departments ud1
+            JOIN user_departments ud2 ON ud1.department_id = ud2.department_id
+            WHERE ud1.user_id = :empId
+              AND ud2.user_id = :managerId
+        )
     """, nativeQuery = true)
     boolean hasAccessToUser(
             @Param("empId") Long empId,
@@ -54,6 +60,19 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
     )
     void deleteUserDepartment(@Param("userId") Long userId, @Param("departmentId") Long departmentId);
 
-    @Query("SELECT CASE WHEN COUNT(ud) > 0 THEN true ELSE false END FROM UserDepartment ud WHERE ud.departmentId = :department AND ud.userId = :userId")
+    @Query("SELECT CASE WHEN COUNT(ud) > 0 THEN true ELSE false END FROM UserDepartment ud WHERE ud.departmentId = :departmentId AND ud.userId = :userId")
     boolean existsByDepartmentAndUser(@Param("userId") Long userId, @Param("departmentId") Long departmentId);
+
+    @Query("SELECT ud.userId, ud.departmentId FROM UserDepartment ud")
+    List<Object[]> findAllMemberships();
+
+    @Query("SELECT ud.departmentId FROM UserDepartment ud WHERE ud.userId = :userId")
+    List<Long> findDepartmentIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT ud.userId FROM UserDepartment ud WHERE ud.departmentId = :departmentId")
+    List<Long> findUserIdsByDepartmentId(@Param("departmentId") Long departmentId);
+
+    Slice<Department> findSliceBy(Pageable pageable);
+
+    List<Department> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
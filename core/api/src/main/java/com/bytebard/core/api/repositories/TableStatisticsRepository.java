@@ -0,0 +1,43 @@
+package com.bytebard.core.api.repositories;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Set;
+
+@Repository
+public class TableStatisticsRepository {
+    public static final String USERS = "users";
+    public static final String DEPARTMENTS = "departments";
+
+    private static final Set<String> TABLES = Set.of(USERS, DEPARTMENTS);
+    // Resolved through the search path, so a same-named table in another schema is never picked up.
+    private static final String ESTIMATE = "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)";
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    private final JdbcTemplate jdbcTemplate;
+
+    public TableStatisticsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Planner statistics are refreshed by autovacuum; a table that was never analysed reports -1.
+    public long estimateRowCount(String table) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Unknown table " + table);
+        }
+        try {
+            var estimate = jdbcTemplate.queryForObject(ESTIMATE, Long.class, table);
+            if (estimate != null && estimate >= 0) {
+                return estimate;
+            }
+        } catch (DataAccessException e) {
+            log.debug("No planner statistics for {}: {}", table, e.getMessage());
+        }
+        var count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count == null ? 0L : count;
+    }
+}
@@ -0,0 +1,74 @@
+package com.bytebard.core.api.repositories;
+
+import com.bytebard.core.api.models.User;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Repository
+public class UserBatchRepository {
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles(user_id, role_id) VALUES (?, ?)";
+    private static final String INSERT_USER_DEPARTMENT = "INSERT INTO user_departments(user_id, department_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final EntityManager entityManager;
+
+    public UserBatchRepository(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.entityManager = entityManager;
+    }
+
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return findExisting("SELECT email FROM users WHERE email IN (:values)", emails, String.class);
+    }
+
+    public Set<Long> findExistingDepartmentIds(Collection<Long> departmentIds) {
+        return findExisting("SELECT id FROM departments WHERE id IN (:values)", departmentIds, Long.class);
+    }
+
+    // Ids come from the pooled users sequence at persist time, so Hibernate sends each chunk as JDBC batches.
+    public void insertUsers(List<User> users) {
+        for (int from = 0; from < users.size(); from += BATCH_SIZE) {
+            var chunk = users.subList(from, Math.min(from + BATCH_SIZE, users.size()));
+            chunk.forEach(entityManager::persist);
+            entityManager.flush();
+            chunk.forEach(entityManager::detach);
+        }
+    }
+
+    public void insertUserRoles(List<long[]> userRoles) {
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoles, BATCH_SIZE, (ps, pair) -> {
+            ps.setLong(1, pair[0]);
+            ps.setLong(2, pair[1]);
+        });
+    }
+
+    public void insertUserDepartments(List<long[]> userDepartments) {
+        jdbcTemplate.batchUpdate(INSERT_USER_DEPARTMENT, userDepartments, BATCH_SIZE, (ps, pair) -> {
+            ps.setLong(1, pair[0]);
+            ps.setLong(2, pair[1]);
+        });
+    }
+
+    private <T> Set<T> findExisting(String sql, Collection<T> values, Class<T> type) {
+        var found = new HashSet<T>();
+        var distinct = new ArrayList<>(new HashSet<>(values));
+        for (int from = 0; from < distinct.size(); from += BATCH_SIZE) {
+            var chunk = distinct.subList(from, Math.min(from + BATCH_SIZE, distinct.size()));
+            found.addAll(namedJdbcTemplate.queryForList(sql, new MapSqlParameterSource("values", chunk), type));
+        }
+        return found;
+    }
+}
@@ -2,21 +2,38 @@ package com.bytebard.core.api.repositories;
 
 import com.bytebard.core.api.models.Role;
 import com.bytebard.core.api.models.User;
+import com.bytebard.core.api.types.UserDTO;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
-import org.springframework.data.domain.Page;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Users sharing at least one department with the manager; a semi-join, so no DISTINCT is needed.
+    // Every manager-scoped query, including the count, is built from this one JPQL definition.
+    String MANAGER_SCOPE = "EXISTS (" +
+            "SELECT 1 FROM UserDepartment ud " +
+            "JOIN UserDepartment mgr ON mgr.departmentId = ud.departmentId " +
+            "WHERE ud.userId = u.id AND mgr.userId = :managerId)";
+    int EXPORT_FETCH_SIZE = 500;
+    // Read paths select straight into the DTO, so the password hash and role proxy are never loaded.
+    String USER_DTO = "SELECT new com.bytebard.core.api.types.UserDTO(u.id, u.firstName, u.lastName, u.email, u.status, u.createdAt) FROM User u";
+
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END " +
             "FROM User u JOIN u.roles r " +
             "WHERE u.id = :userId AND r.name = :roleName")
@@ -71,20 +88,50 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @EntityGraph(attributePaths = "roles")
     Optional<User> findWithRolesById(Long id);
 
-    @Query(
-            value = "SELECT DISTINCT u.* " +
-                    "FROM users u " +
-                    "LEFT JOIN user_departments ud ON u.id = ud.user_id " +
-                    "LEFT JOIN departments d ON ud.department_id = d.id " +
-                    "LEFT JOIN user_departments ud2 ON d.id = ud2.department_id " +
-                    "WHERE ud2.user_id = :managerId",
-            countQuery = "SELECT COUNT(DISTINCT u.id) " +
-                    "FROM users u " +
-                    "LEFT JOIN user_departments ud ON u.id = ud.user_id " +
-                    "LEFT JOIN departments d ON ud.department_id = d.id " +
-                    "LEFT JOIN user_departments ud2 ON d.id = ud2.department_id " +
-                    "WHERE ud2.user_id = :managerId",
-            nativeQuery = true
-    )
-    Page<User> findUsersInSameDepartmentsAsManager(@Param("managerId") Long managerId, Pageable pageable);
+    // One row per role (a single row with a null role id when the user has none); no rows when the user is missing.
+    @Query(value = "SELECT u.status, ur.role_id FROM users u LEFT JOIN user_roles ur ON ur.user_id = u.id WHERE u.id = :userId", nativeQuery = true)
+    List<Object[]> findStatusAndRoleIdsById(@Param("userId") Long userId);
+
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.id = :userId")
+    Optional<Integer> findTokenEpochById(@Param("userId") Long userId);
+
+    // Incremented in the database so concurrent revocations each move the epoch on; pending entity changes are flushed first.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1 WHERE u.id = :userId")
+    int incrementTokenEpoch(@Param("userId") Long userId);
+
+    @Query("SELECT u.id, u.tokenEpoch FROM User u WHERE u.tokenEpoch > 0")
+    List<Object[]> findNonZeroTokenEpochs();
+
+    @Query(USER_DTO + " WHERE u.id = :id")
+    Optional<UserDTO> findDtoById(@Param("id") Long id);
+
+    // Offset slices need a stable order or rows can repeat or go missing between pages.
+    @Query(USER_DTO + " ORDER BY u.id")
+    Slice<UserDTO> findDtoSlice(Pageable pageable);
+
+    // Candidate ids from the membership index are re-checked against the live membership before they are returned.
+    @Query(USER_DTO + " WHERE u.id IN :ids AND " + MANAGER_SCOPE + " ORDER BY u.id")
+    List<UserDTO> findUsersInSameDepartmentsAsManagerByIdIn(@Param("managerId") Long managerId, @Param("ids") Collection<Long> ids);
+
+    @Query(USER_DTO + " WHERE u.id > :afterId ORDER BY u.id")
+    List<UserDTO> findDtosAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(USER_DTO + " WHERE " + MANAGER_SCOPE + " ORDER BY u.id")
+    Slice<UserDTO> findUsersInSameDepartmentsAsManager(@Param("managerId") Long managerId, Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE " + MANAGER_SCOPE)
+    long countUsersInSameDepartmentsAsManager(@Param("managerId") Long managerId);
+
+    @Query(USER_DTO + " WHERE u.id > :afterId AND " + MANAGER_SCOPE + " ORDER BY u.id")
+    List<UserDTO> findUsersInSameDepartmentsAsManagerAfter(@Param("managerId") Long managerId, @Param("afterId") Long afterId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query(USER_DTO + " ORDER BY u.id")
+    Stream<UserDTO> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query(USER_DTO + " WHERE " + MANAGER_SCOPE + " ORDER BY u.id")
+    Stream<UserDTO> streamUsersInSameDepartmentsAsManager(@Param("managerId") Long managerId);
 }
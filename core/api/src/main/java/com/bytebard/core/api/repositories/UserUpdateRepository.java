@@ -0,0 +1,69 @@
+package com.bytebard.core.api.repositories;
+
+import com.bytebard.core.api.types.UserDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+
+@Repository
+public class UserUpdateRepository {
+    // Every sub-statement sees the same snapshot, so "member" reflects the membership before the swap.
+    // A duplicate email fails the UPDATE on the unique constraint instead of being pre-checked.
+    private static final String UPDATE_USER = """
+            WITH target AS (
+                SELECT EXISTS (SELECT 1 FROM users WHERE id = :id) AS user_found,
+                       EXISTS (SELECT 1 FROM departments WHERE id = :departmentId) AS department_found,
+                       EXISTS (SELECT 1 FROM user_departments WHERE user_id = :id AND department_id = :departmentId) AS member
+            ),
+            updated AS (
+                UPDATE users SET first_name = :firstName, last_name = :lastName, email = :email
+                WHERE id = :id AND (SELECT department_found FROM target)
+                RETURNING id, first_name, last_name, email, status, created_at
+            ),
+            removed AS (
+                DELETE FROM user_departments
+                WHERE user_id IN (SELECT id FROM updated) AND NOT (SELECT member FROM target)
+            ),
+            added AS (
+                INSERT INTO user_departments(user_id, department_id)
+                SELECT id, :departmentId FROM updated WHERE NOT (SELECT member FROM target)
+            )
+            SELECT t.user_found, t.department_found, u.id, u.first_name, u.last_name, u.email, u.status, u.created_at
+            FROM target t LEFT JOIN updated u ON TRUE
+            """;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public UserUpdateRepository(JdbcTemplate jdbcTemplate) {
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    public record Result(boolean userFound, boolean departmentFound, UserDTO user) {}
+
+    public Result update(long id, String firstName, String lastName, String email, long departmentId) {
+        var params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("firstName", firstName)
+                .addValue("lastName", lastName)
+                .addValue("email", email)
+                .addValue("departmentId", departmentId);
+        return namedJdbcTemplate.queryForObject(UPDATE_USER, params, (rs, rowNum) -> {
+            UserDTO user = null;
+            if (rs.getObject("id") != null) {
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                user = new UserDTO(
+                        rs.getLong("id"),
+                        rs.getString("first_name"),
+                        rs.getString("last_name"),
+                        rs.getString("email"),
+                        rs.getString("status"),
+                        createdAt == null ? null : createdAt.toLocalDateTime()
+                );
+            }
+            return new Result(rs.getBoolean("user_found"), rs.getBoolean("department_found"), user);
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package com.bytebard.core.api.security;
+
+import com.bytebard.core.api.models.Role;
+import com.bytebard.core.api.models.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public record AuthPrincipal(long id, String status, int roleBits) {
+    public static final int ADMIN = 1;
+    public static final int MANAGER = 1 << 1;
+    public static final int EMPLOYEE = 1 << 2;
+
+    private static final String[] ROLE_NAMES = {Role.ADMIN, Role.MANAGER, Role.EMPLOYEE};
+    // One shared authority list per role combination, so building a token allocates nothing.
+    private static final List<List<GrantedAuthority>> AUTHORITIES = authorityTable();
+
+    public static AuthPrincipal of(long id, String status, Collection<String> roleNames) {
+        int bits = 0;
+        for (var name : roleNames) {
+            bits |= bitOf(name);
+        }
+        return new AuthPrincipal(id, status, bits);
+    }
+
+    public static AuthPrincipal from(User user) {
+        return of(user.getId(), user.getStatus(), user.getRoles().stream().map(Role::getName).toList());
+    }
+
+    public static int bitOf(String roleName) {
+        for (int i = 0; i < ROLE_NAMES.length; i++) {
+            if (ROLE_NAMES[i].equalsIgnoreCase(roleName)) {
+                return 1 << i;
+            }
+        }
+        return 0;
+    }
+
+    public boolean hasRole(int roleBit) {
+        return (roleBits & roleBit) != 0;
+    }
+
+    public boolean isAdmin() {
+        return hasRole(ADMIN);
+    }
+
+    public boolean isManager() {
+        return hasRole(MANAGER);
+    }
+
+    public boolean isEmployee() {
+        return hasRole(EMPLOYEE);
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return AUTHORITIES.get(roleBits);
+    }
+
+    private static List<List<GrantedAuthority>> authorityTable() {
+        var table = new ArrayList<List<GrantedAuthority>>(1 << ROLE_NAMES.length);
+        for (int bits = 0; bits < 1 << ROLE_NAMES.length; bits++) {
+            var authorities = new ArrayList<GrantedAuthority>();
+            for (int i = 0; i < ROLE_NAMES.length; i++) {
+                if ((bits & (1 << i)) != 0) {
+                    authorities.add(new SimpleGrantedAuthority("ROLE_" + ROLE_NAMES[i]));
+                }
+            }
+            table.add(List.copyOf(authorities));
+        }
+        return List.copyOf(table);
+    }
+}
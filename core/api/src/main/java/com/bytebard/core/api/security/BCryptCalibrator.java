@@ -0,0 +1,52 @@
+package com.bytebard.core.api.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+public final class BCryptCalibrator {
+    public static final int MIN_STRENGTH = 10;
+    public static final int MAX_STRENGTH = 16;
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptCalibrator.class);
+    private static final int SAMPLES = 3;
+    private static final int WARMUP_HASHES = 5;
+
+    private BCryptCalibrator() {}
+
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        var targetNanos = targetLatency.toNanos();
+        // Let the JIT compile the hashing loop first, or the first measurements overstate the cost.
+        var warmupSalt = BCrypt.gensalt(8);
+        for (int i = 0; i < WARMUP_HASHES; i++) {
+            BCrypt.hashpw("calibration-password", warmupSalt);
+        }
+        var strength = minStrength;
+        var elapsed = measure(minStrength);
+        while (strength < maxStrength) {
+            var next = measure(strength + 1);
+            if (next > targetNanos) {
+                break;
+            }
+            strength++;
+            elapsed = next;
+        }
+        log.info("Calibrated BCrypt strength {} ({} ms per hash, target {} ms)", strength, Duration.ofNanos(elapsed).toMillis(), targetLatency.toMillis());
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        var salt = BCrypt.gensalt(strength);
+        var samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            var start = System.nanoTime();
+            BCrypt.hashpw("calibration-password", salt);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -3,16 +3,15 @@ package com.bytebard.core.api.security;
 import com.bytebard.core.api.models.User;
 import com.bytebard.core.api.repositories.UserRepository;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtAuthenticationTokenProvider {
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
     private final UserRepository userRepository;
 
-    public JwtAuthenticationTokenProvider(PasswordEncoder passwordEncoder, UserRepository userRepository) {
-        this.passwordEncoder = passwordEncoder;
+    public JwtAuthenticationTokenProvider(PasswordHashingExecutor hashingExecutor, UserRepository userRepository) {
+        this.hashingExecutor = hashingExecutor;
         this.userRepository = userRepository;
     }
 
@@ -22,7 +21,7 @@ public class JwtAuthenticationTokenProvider {
             throw new BadCredentialsException("Invalid email or password");
         }
         var user = findUser.get();
-        var matches = passwordEncoder.matches(password, user.getPassword());
+        var matches = hashingExecutor.matches(password, user.getPassword());
         if (!matches) {
             throw new BadCredentialsException("Invalid email or password");
         }
@@ -0,0 +1,71 @@
+package com.bytebard.core.api.security;
+
+import com.bytebard.core.api.repositories.RoleRepository;
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// The roles table is a handful of static rows; resolve names and ids from an immutable snapshot instead of the database.
+@Component
+public class RoleRegistry {
+    public record Entry(long id, String name, int ordinal) {
+        public int bit() {
+            return 1 << ordinal;
+        }
+    }
+
+    private record Snapshot(Map<String, Entry> byName, Map<Long, Entry> byId) {}
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    private final RoleRepository roleRepository;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        var byName = new HashMap<String, Entry>();
+        var byId = new HashMap<Long, Entry>();
+        for (var role : roleRepository.findAll()) {
+            var bit = AuthPrincipal.bitOf(role.getName());
+            if (bit == 0) {
+                log.warn("Role {} has no authorization bit and is ignored", role.getName());
+                continue;
+            }
+            var entry = new Entry(role.getId(), role.getName(), Integer.numberOfTrailingZeros(bit));
+            byName.put(entry.name(), entry);
+            byId.put(entry.id(), entry);
+        }
+        snapshot = new Snapshot(Map.copyOf(byName), Map.copyOf(byId));
+    }
+
+    public Optional<Entry> find(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(snapshot.byName().get(name));
+    }
+
+    public boolean contains(String name) {
+        return name != null && snapshot.byName().containsKey(name);
+    }
+
+    public int bitOf(long roleId) {
+        var entry = snapshot.byId().get(roleId);
+        return entry == null ? 0 : entry.bit();
+    }
+
+    @EventListener
+    public void onUserEvent(UserEventMessage message) {
+        if (Events.ROLES_CHANGED.equals(message.eventType())) {
+            load();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.bytebard.core.api.types;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+public class CursorPage<T> {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    public static final int DEFAULT_SIZE = 10;
+    // Cursor pages larger than this are clamped, which also keeps the size + 1 look-ahead row from overflowing.
+    // The offset endpoints predate the cap and keep accepting any size.
+    public static final int MAX_SIZE = 100;
+
+    private final List<T> items;
+    private final String next;
+
+    public CursorPage(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    // Expects size + 1 rows ordered by key; the extra row only signals that another page exists.
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, ToLongFunction<E> key, Function<E, T> mapper) {
+        var hasMore = rows.size() > size;
+        var page = hasMore ? rows.subList(0, size) : rows;
+        var next = hasMore ? encode(key.applyAsLong(page.get(page.size() - 1))) : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), next);
+    }
+
+    public static int size(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(requested, MAX_SIZE);
+    }
+
+    public static String encode(long key) {
+        return ENCODER.encodeToString(ByteBuffer.allocate(Long.BYTES).putLong(key).array());
+    }
+
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            var bytes = DECODER.decode(cursor);
+            if (bytes.length != Long.BYTES) {
+                throw new IllegalArgumentException();
+            }
+            return ByteBuffer.wrap(bytes).getLong();
+        } catch (IllegalArgumentException e) {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
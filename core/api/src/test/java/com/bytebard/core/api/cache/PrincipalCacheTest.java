@@ -0,0 +1,124 @@
+package com.bytebard.core.api.cache;
+
+import com.bytebard.core.api.models.Role;
+import com.bytebard.core.api.models.Status;
+import com.bytebard.core.api.repositories.RoleRepository;
+import com.bytebard.core.api.repositories.UserRepository;
+import com.bytebard.core.api.security.AuthPrincipal;
+import com.bytebard.core.api.security.RoleRegistry;
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import com.bytebard.utils.DateUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PrincipalCacheTest {
+
+    private static final long ADMIN_ID = 1L;
+    private static final long MANAGER_ID = 2L;
+    private static final long EMPLOYEE_ID = 3L;
+
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        var roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAll()).thenReturn(List.of(role(Role.ADMIN, ADMIN_ID), role(Role.MANAGER, MANAGER_ID), role(Role.EMPLOYEE, EMPLOYEE_ID)));
+        var roleRegistry = new RoleRegistry(roleRepository);
+        roleRegistry.load();
+        principalCache = new PrincipalCache(userRepository, roleRegistry, meterRegistry, 100, 60);
+    }
+
+    private static Role role(String name, long id) {
+        var role = new Role(name);
+        role.setId(id);
+        return role;
+    }
+
+    private static List<Object[]> rows(Long... roleIds) {
+        if (roleIds.length == 0) {
+            return List.<Object[]>of(new Object[]{Status.ACTIVE, null});
+        }
+        return Arrays.stream(roleIds).map(id -> new Object[]{Status.ACTIVE, id}).toList();
+    }
+
+    @Test
+    void get_loadsOnce_andKeepsIdRolesAndStatus() {
+        when(userRepository.findStatusAndRoleIdsById(1L)).thenReturn(rows(MANAGER_ID));
+
+        var first = principalCache.get(1L).orElseThrow();
+        var second = principalCache.get(1L).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(1L, second.id());
+        assertEquals(Status.ACTIVE, second.status());
+        assertTrue(second.isManager());
+        assertFalse(second.isAdmin());
+        verify(userRepository, times(1)).findStatusAndRoleIdsById(1L);
+    }
+
+    @Test
+    void get_combinesRoleBits_fromRoleIds() {
+        when(userRepository.findStatusAndRoleIdsById(6L)).thenReturn(rows(ADMIN_ID, MANAGER_ID));
+
+        var principal = principalCache.get(6L).orElseThrow();
+
+        assertEquals(AuthPrincipal.ADMIN | AuthPrincipal.MANAGER, principal.roleBits());
+        assertFalse(principal.isEmployee());
+    }
+
+    @Test
+    void get_doesNotCacheMissingUsers() {
+        when(userRepository.findStatusAndRoleIdsById(2L)).thenReturn(List.of());
+
+        assertTrue(principalCache.get(2L).isEmpty());
+        assertTrue(principalCache.get(2L).isEmpty());
+
+        verify(userRepository, times(2)).findStatusAndRoleIdsById(2L);
+    }
+
+    @Test
+    void onUserEvent_invalidatesUpdatedAndDeletedUsers() {
+        when(userRepository.findStatusAndRoleIdsById(3L)).thenReturn(rows(EMPLOYEE_ID));
+
+        for (var type : new String[]{Events.USER_UPDATED, Events.USER_DELETED}) {
+            principalCache.get(3L);
+            principalCache.onUserEvent(new UserEventMessage(3L, type, DateUtils.now()));
+        }
+        principalCache.get(3L);
+
+        verify(userRepository, times(3)).findStatusAndRoleIdsById(3L);
+    }
+
+    @Test
+    void onUserEvent_ignoresCreatedEvents() {
+        when(userRepository.findStatusAndRoleIdsById(4L)).thenReturn(rows(ADMIN_ID));
+
+        principalCache.get(4L);
+        principalCache.onUserEvent(new UserEventMessage(4L, Events.USER_CREATED, DateUtils.now()));
+        principalCache.get(4L);
+
+        verify(userRepository, times(1)).findStatusAndRoleIdsById(4L);
+    }
+
+    @Test
+    void metrics_areRegistered() {
+        when(userRepository.findStatusAndRoleIdsById(5L)).thenReturn(rows());
+        principalCache.get(5L);
+        principalCache.get(5L);
+
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "auth.principals").tag("result", "hit").functionCounter());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", "auth.principals").functionCounter());
+    }
+}
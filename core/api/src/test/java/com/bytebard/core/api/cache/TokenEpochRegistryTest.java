@@ -0,0 +1,70 @@
+package com.bytebard.core.api.cache;
+
+import com.bytebard.core.api.repositories.UserRepository;
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TokenEpochRegistryTest {
+
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenEpochRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new TokenEpochRegistry(userRepository, meterRegistry);
+    }
+
+    @Test
+    void isCurrent_acceptsAnyEpoch_forUnknownUsers() {
+        assertTrue(registry.isCurrent(1L, 0));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void load_preloadsNonZeroEpochs() {
+        when(userRepository.findNonZeroTokenEpochs()).thenReturn(List.<Object[]>of(new Object[]{3L, 2}));
+
+        registry.load();
+
+        assertFalse(registry.isCurrent(3L, 1));
+        assertTrue(registry.isCurrent(3L, 2));
+        assertEquals(1.0, meterRegistry.get("auth.token.epochs").gauge().value());
+    }
+
+    @Test
+    void onUserEvent_reloadsEpoch_whenTokensRevoked() {
+        when(userRepository.findTokenEpochById(4L)).thenReturn(Optional.of(1));
+
+        registry.onUserEvent(new UserEventMessage(4L, Events.USER_TOKENS_REVOKED, null));
+
+        assertFalse(registry.isCurrent(4L, 0));
+        assertTrue(registry.isCurrent(4L, 1));
+    }
+
+    @Test
+    void onUserEvent_revokesEverything_whenUserDeleted() {
+        registry.onUserEvent(new UserEventMessage(5L, Events.USER_DELETED, null));
+
+        assertFalse(registry.isCurrent(5L, 1_000));
+    }
+
+    @Test
+    void advance_neverMovesEpochBackwards() {
+        registry.advance(6L, 3);
+        registry.advance(6L, 1);
+
+        assertFalse(registry.isCurrent(6L, 2));
+    }
+}
@@ -41,6 +41,9 @@ public class PersistenceJpaConfigTest {
         props.put("hibernate.hbm2ddl.auto", "create-drop");
         props.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
         props.put("hibernate.show_sql", "false");
+        props.put("hibernate.jdbc.batch_size", "50");
+        props.put("hibernate.order_inserts", "true");
+        props.put("hibernate.order_updates", "true");
         emf.setJpaPropertyMap(props);
 
         return emf;
@@ -0,0 +1,32 @@
+package com.bytebard.core.api.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+
+// One PostgreSQL container per test JVM, migrated with the same Flyway scripts the services run against.
+// Tests share it, so each one should work inside a transaction that it rolls back.
+public final class PostgresTestDatabase {
+    private static final PostgreSQLContainer<?> CONTAINER = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static DataSource dataSource;
+
+    private PostgresTestDatabase() {
+    }
+
+    public static synchronized DataSource dataSource() {
+        if (dataSource == null) {
+            CONTAINER.start();
+            var migrated = new DriverManagerDataSource(CONTAINER.getJdbcUrl(), CONTAINER.getUsername(), CONTAINER.getPassword());
+            Flyway.configure()
+                    .dataSource(migrated)
+                    .locations("filesystem:" + System.getProperty("flyway.migrations", "../../flyway/migrations"))
+                    .load()
+                    .migrate();
+            dataSource = migrated;
+        }
+        return dataSource;
+    }
+}
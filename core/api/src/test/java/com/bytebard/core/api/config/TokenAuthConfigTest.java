@@ -0,0 +1,87 @@
+package com.bytebard.core.api.config;
+
+import com.bytebard.core.api.models.Role;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class TokenAuthConfigTest {
+
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private TokenAuthConfig config;
+
+    @BeforeEach
+    void setUp() {
+        var key = new SecretKeySpec("test-secret-test-secret-test-secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        config = spy(new TokenAuthConfig(key, 100, 30));
+    }
+
+    @Test
+    void getClaims_verifiesSignatureOnce_forRepeatedTokens() {
+        var token = config.token(7L, HOUR, 0, null, null);
+
+        assertEquals("7", config.extractClaims(token).getSubject());
+        assertEquals("7", config.extractClaims(token).getSubject());
+
+        verify(config, times(1)).parseClaims(token);
+    }
+
+    @Test
+    void getClaims_cachesRejections_forForgedTokens() {
+        var token = config.token(7L, HOUR, 0, null, null);
+        var forged = token.substring(0, token.lastIndexOf('.') + 1) + "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+
+        assertThrows(JwtException.class, () -> config.getClaims(forged));
+        assertThrows(JwtException.class, () -> config.getClaims(forged));
+
+        verify(config, times(1)).parseClaims(forged);
+    }
+
+    @Test
+    void getClaims_doesNotTrustCachedSignature_forDifferentPayload() {
+        var token = config.token(7L, HOUR, 0, null, null);
+        config.getClaims(token);
+        var other = config.token(8L, HOUR, 0, null, null);
+        var tampered = other.substring(0, other.lastIndexOf('.') + 1) + config.extractSignature(token);
+
+        var ex = assertThrows(HttpClientErrorException.class, () -> config.extractClaims(tampered));
+        assertEquals(HttpStatus.FORBIDDEN, ex.getStatusCode());
+    }
+
+    @Test
+    void hasFreshPrincipalClaims_requiresStatelessModeAndEmbeddedClaims() {
+        var stateful = config.getClaims(config.token(7L, HOUR, 0, List.of(Role.ADMIN), "active"));
+        assertFalse(config.hasFreshPrincipalClaims(stateful));
+
+        ReflectionTestUtils.setField(config, "stateless", true);
+        ReflectionTestUtils.setField(config, "maxStalenessMinutes", 15L);
+
+        assertTrue(config.hasFreshPrincipalClaims(stateful));
+        assertEquals(Role.ADMIN, stateful.get(TokenAuthConfig.ROLES_CLAIM, String.class));
+        assertFalse(config.hasFreshPrincipalClaims(config.getClaims(config.token(7L, HOUR, 0, null, null))));
+
+        ReflectionTestUtils.setField(config, "maxStalenessMinutes", -1L);
+        assertFalse(config.hasFreshPrincipalClaims(stateful));
+    }
+
+    @Test
+    void extractSignature_returnsNull_forMalformedTokens() {
+        assertNull(config.extractSignature("abc"));
+        assertNull(config.extractSignature("a.b"));
+        assertNull(config.extractSignature("a.b.c.d"));
+        assertNull(config.extractSignature("a.b."));
+        assertEquals("c", config.extractSignature("a.b.c"));
+    }
+}
@@ -1,9 +1,18 @@
 package com.bytebard.core.api.filters;
 
+import com.bytebard.core.api.cache.PrincipalCache;
+import com.bytebard.core.api.cache.TokenEpochRegistry;
 import com.bytebard.core.api.config.TokenAuthConfig;
 import com.bytebard.core.api.context.AuthContext;
-import com.bytebard.core.api.models.User;
+import com.bytebard.core.api.models.Role;
+import com.bytebard.core.api.models.Status;
+import com.bytebard.core.api.repositories.RoleRepository;
 import com.bytebard.core.api.repositories.UserRepository;
+import com.bytebard.core.api.security.AuthPrincipal;
+import com.bytebard.core.api.security.RoleRegistry;
+import com.bytebard.utils.IdentityHeaderCodec;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,10 +23,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
-import java.util.Optional;
+import java.time.Duration;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 
@@ -31,6 +43,9 @@ public class TokenAuthFilterTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private RoleRepository roleRepository;
+
     @Mock
     private HandlerExceptionResolver exceptionResolver;
 
@@ -43,13 +58,23 @@ public class TokenAuthFilterTest {
     @Mock
     private FilterChain filterChain;
 
+    private RoleRegistry roleRegistry;
+    private TokenEpochRegistry tokenEpochs;
     private TokenAuthFilter filter;
     private AutoCloseable mocksCloseable;
 
     @BeforeEach
     void setUp() {
         mocksCloseable = MockitoAnnotations.openMocks(this);
-        filter = new TokenAuthFilter(config, authContext, userRepository, exceptionResolver);
+        roleRegistry = new RoleRegistry(roleRepository);
+        roleRegistry.load();
+        var principalCache = new PrincipalCache(userRepository, roleRegistry, new SimpleMeterRegistry(), 100, 60);
+        tokenEpochs = new TokenEpochRegistry(userRepository, new SimpleMeterRegistry());
+        filter = new TokenAuthFilter(config, authContext, principalCache, tokenEpochs, exceptionResolver);
+    }
+
+    private static List<Object[]> activeUserRows() {
+        return List.<Object[]>of(new Object[]{Status.ACTIVE, null});
     }
 
     @AfterEach
@@ -62,25 +87,144 @@ public class TokenAuthFilterTest {
     @Test
     void whenBearerTokenPresentAndUserFound_thenSetsContextAndContinues() throws ServletException, IOException {
         when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer token123");
-        when(config.extractUserId("token123")).thenReturn("10");
+        when(config.extractClaims("token123")).thenReturn(Jwts.claims().subject("10").build());
 
-        User user = new User();
-        when(userRepository.findWithRolesById(10L)).thenReturn(Optional.of(user));
+        when(userRepository.findStatusAndRoleIdsById(10L)).thenReturn(activeUserRows());
         when(authContext.isAuthenticated()).thenReturn(true);
 
         filter.doFilterInternal(request, response, filterChain);
 
-        verify(authContext).setContextProps(user, "token123");
+        verify(authContext).setContextProps(argThat(u -> u.id() == 10L), eq("token123"));
         verify(filterChain).doFilter(request, response);
         verify(authContext, never()).setUnauthorizedToken();
         verify(exceptionResolver, never()).resolveException(any(), any(), any(), any());
     }
 
+    @Test
+    void whenSameUserAuthenticatesTwice_thenRepositoryIsHitOnce() throws ServletException, IOException {
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer token123");
+        when(config.extractClaims("token123")).thenReturn(Jwts.claims().subject("10").build());
+        when(userRepository.findStatusAndRoleIdsById(10L)).thenReturn(activeUserRows());
+        when(authContext.isAuthenticated()).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(userRepository, times(1)).findStatusAndRoleIdsById(10L);
+        verify(authContext, times(2)).setContextProps(any(AuthPrincipal.class), eq("token123"));
+    }
+
+    @Test
+    void whenStatelessClaimsAreFresh_thenBuildsPrincipalWithoutRepository() throws ServletException, IOException {
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer token123");
+        var claims = Jwts.claims().subject("10")
+                .add(TokenAuthConfig.ROLES_CLAIM, Role.MANAGER)
+                .add(TokenAuthConfig.STATUS_CLAIM, "active")
+                .build();
+        when(config.extractClaims("token123")).thenReturn(claims);
+        when(config.hasFreshPrincipalClaims(claims)).thenReturn(true);
+        when(authContext.isAuthenticated()).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(authContext).setContextProps(argThat(u -> u.id() == 10L && u.isManager() && "active".equals(u.status())), eq("token123"));
+        verifyNoInteractions(userRepository);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void whenGatewayIdentityHeaderIsValid_thenSkipsTokenVerification() throws ServletException, IOException {
+        var codec = new IdentityHeaderCodec("identity-secret", Duration.ofSeconds(30));
+        var trustingFilter = new TokenAuthFilter(config, authContext, new PrincipalCache(userRepository, roleRegistry, new SimpleMeterRegistry(), 100, 60), tokenEpochs, exceptionResolver, codec);
+        var now = System.currentTimeMillis();
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer token123");
+        when(request.getHeader(IdentityHeaderCodec.HEADER)).thenReturn(codec.encode(new IdentityHeaderCodec.Identity(10L, "active", List.of(Role.ADMIN), 0, now, now, IdentityHeaderCodec.tokenHash("token123"), now + 60_000)));
+        when(config.isStateless()).thenReturn(true);
+        when(config.isFresh(now)).thenReturn(true);
+        when(authContext.isAuthenticated()).thenReturn(true);
+
+        trustingFilter.doFilterInternal(request, response, filterChain);
+
+        verify(authContext).setContextProps(argThat(u -> u.id() == 10L && u.isAdmin()), eq("token123"));
+        verify(config, never()).extractClaims(anyString());
+        verifyNoInteractions(userRepository);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void whenGatewayIdentityHeaderIsForged_thenFallsBackToTokenVerification() throws ServletException, IOException {
+        var codec = new IdentityHeaderCodec("identity-secret", Duration.ofSeconds(30));
+        var forger = new IdentityHeaderCodec("another-secret", Duration.ofSeconds(30));
+        var trustingFilter = new TokenAuthFilter(config, authContext, new PrincipalCache(userRepository, roleRegistry, new SimpleMeterRegistry(), 100, 60), tokenEpochs, exceptionResolver, codec);
+        var now = System.currentTimeMillis();
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer token123");
+        when(request.getHeader(IdentityHeaderCodec.HEADER)).thenReturn(forger.encode(new IdentityHeaderCodec.Identity(1L, "active", List.of(Role.ADMIN), 0, now, now, IdentityHeaderCodec.tokenHash("token123"), now + 60_000)));
+        when(config.extractClaims("token123")).thenReturn(Jwts.claims().subject("10").build());
+        when(userRepository.findStatusAndRoleIdsById(10L)).thenReturn(activeUserRows());
+        when(authContext.isAuthenticated()).thenReturn(true);
+
+        trustingFilter.doFilterInternal(request, response, filterChain);
+
+        verify(config).extractClaims("token123");
+        verify(authContext).setContextProps(argThat(u -> u.id() == 10L), eq("token123"));
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void whenGatewayIdentityHeaderBelongsToAnotherToken_thenFallsBackToTokenVerification() throws ServletException, IOException {
+        var codec = new IdentityHeaderCodec("identity-secret", Duration.ofSeconds(30));
+        var trustingFilter = new TokenAuthFilter(config, authContext, new PrincipalCache(userRepository, roleRegistry, new SimpleMeterRegistry(), 100, 60), tokenEpochs, exceptionResolver, codec);
+        var now = System.currentTimeMillis();
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer header.payload.forged");
+        when(request.getHeader(IdentityHeaderCodec.HEADER)).thenReturn(codec.encode(new IdentityHeaderCodec.Identity(1L, "active", List.of(Role.ADMIN), 0, now, now, IdentityHeaderCodec.tokenHash("header.payload.captured"), now + 60_000)));
+        when(config.extractClaims("header.payload.forged")).thenThrow(new HttpClientErrorException(HttpStatus.UNAUTHORIZED, "Invalid token"));
+
+        trustingFilter.doFilterInternal(request, response, filterChain);
+
+        verify(config).extractClaims("header.payload.forged");
+        verify(authContext, never()).setContextProps(any(), anyString());
+        verify(exceptionResolver).resolveException(eq(request), eq(response), isNull(), any(HttpClientErrorException.class));
+        verify(filterChain, never()).doFilter(request, response);
+    }
+
+    @Test
+    void whenGatewayIdentityHeaderOutlivesItsToken_thenFallsBackToTokenVerification() throws ServletException, IOException {
+        var codec = new IdentityHeaderCodec("identity-secret", Duration.ofSeconds(30));
+        var trustingFilter = new TokenAuthFilter(config, authContext, new PrincipalCache(userRepository, roleRegistry, new SimpleMeterRegistry(), 100, 60), tokenEpochs, exceptionResolver, codec);
+        var now = System.currentTimeMillis();
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer token123");
+        when(request.getHeader(IdentityHeaderCodec.HEADER)).thenReturn(codec.encode(new IdentityHeaderCodec.Identity(10L, "active", List.of(Role.ADMIN), 0, now, now, IdentityHeaderCodec.tokenHash("token123"), now - 1)));
+        when(config.extractClaims("token123")).thenThrow(new HttpClientErrorException(HttpStatus.UNAUTHORIZED, "Token expired"));
+
+        trustingFilter.doFilterInternal(request, response, filterChain);
+
+        verify(config).extractClaims("token123");
+        verify(authContext, never()).setContextProps(any(), anyString());
+        verify(filterChain, never()).doFilter(request, response);
+    }
+
+    @Test
+    void whenTokenEpochIsBehindRegistry_thenResolvesRevokedError() throws ServletException, IOException {
+        tokenEpochs.advance(10L, 2);
+        var claims = Jwts.claims().subject("10").add(TokenAuthConfig.EPOCH_CLAIM, 1).build();
+        when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer token123");
+        when(config.extractClaims("token123")).thenReturn(claims);
+        when(config.epochOf(claims)).thenReturn(1);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(authContext).clear();
+        verify(exceptionResolver).resolveException(eq(request), eq(response), isNull(), argThat(e ->
+                e instanceof HttpClientErrorException ex && ex.getStatusCode() == HttpStatus.UNAUTHORIZED));
+        verifyNoInteractions(userRepository);
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+
     @Test
     void whenBearerTokenPresentAndNoUserFound_thenSetsUnauthorizedAndContinues() throws ServletException, IOException {
         when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer token123");
-        when(config.extractUserId("token123")).thenReturn("20");
-        when(userRepository.findWithRolesById(20L)).thenReturn(Optional.empty());
+        when(config.extractClaims("token123")).thenReturn(Jwts.claims().subject("20").build());
+        when(userRepository.findStatusAndRoleIdsById(20L)).thenReturn(List.of());
 
         when(authContext.isAuthenticated()).thenReturn(false);
 
@@ -104,7 +248,7 @@ public class TokenAuthFilterTest {
     @Test
     void whenConfigThrowsException_thenClearsContextAndResolvesException() throws ServletException, IOException {
         when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer bad-token");
-        when(config.extractUserId("bad-token")).thenThrow(new IllegalStateException("Invalid token"));
+        when(config.extractClaims("bad-token")).thenThrow(new IllegalStateException("Invalid token"));
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -116,8 +260,8 @@ public class TokenAuthFilterTest {
     @Test
     void whenAlreadyAuthenticated_thenSkipsUnauthorizedMark() throws ServletException, IOException {
         when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer token123");
-        when(config.extractUserId("token123")).thenReturn("10");
-        when(userRepository.findWithRolesById(10L)).thenReturn(Optional.empty());
+        when(config.extractClaims("token123")).thenReturn(Jwts.claims().subject("10").build());
+        when(userRepository.findStatusAndRoleIdsById(10L)).thenReturn(List.of());
         when(authContext.isAuthenticated()).thenReturn(true);
 
         filter.doFilterInternal(request, response, filterChain);
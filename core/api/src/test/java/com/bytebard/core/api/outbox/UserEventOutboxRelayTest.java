@@ -0,0 +1,166 @@
+package com.bytebard.core.api.outbox;
+
+import com.bytebard.core.api.config.PersistenceJpaConfigTest;
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import com.bytebard.core.messaging.producer.ConfirmingPublisher;
+import com.bytebard.utils.DateUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { PersistenceJpaConfigTest.class })
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class UserEventOutboxRelayTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private ConfirmingPublisher publisher;
+    private JdbcUserEventOutbox outbox;
+    private UserEventOutboxRelay relay;
+    private final List<CompletableFuture<Void>> confirms = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = spy(new JdbcTemplate(dataSource));
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS user_event_outbox (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    payload VARCHAR(4000) NOT NULL,
+                    created_at TIMESTAMP NOT NULL,
+                    claimed_until TIMESTAMP
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS user_event_outbox_failed (
+                    id BIGINT PRIMARY KEY,
+                    payload VARCHAR(4000) NOT NULL,
+                    created_at TIMESTAMP NOT NULL,
+                    failed_at TIMESTAMP NOT NULL,
+                    error VARCHAR(4000)
+                )
+                """);
+        jdbcTemplate.update("DELETE FROM user_event_outbox");
+        jdbcTemplate.update("DELETE FROM user_event_outbox_failed");
+
+        var objectMapper = new ObjectMapper().findAndRegisterModules();
+        publisher = mock(ConfirmingPublisher.class);
+        outbox = new JdbcUserEventOutbox(jdbcTemplate, objectMapper);
+        relay = new UserEventOutboxRelay(jdbcTemplate, publisher, objectMapper, transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(relay, "topicExchange", "events.topic");
+        ReflectionTestUtils.setField(relay, "maxBatchSize", 100);
+        ReflectionTestUtils.setField(relay, "confirmTimeoutMs", 200L);
+        ReflectionTestUtils.setField(relay, "claimTimeoutMs", 60_000L);
+    }
+
+    @SafeVarargs
+    private void confirmWith(CompletableFuture<Void>... futures) {
+        var stubbing = when(publisher.publish(anyString(), anyString(), any()));
+        for (var future : futures) {
+            confirms.add(future);
+            stubbing = stubbing.thenReturn(future);
+        }
+    }
+
+    private List<Long> remainingIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM user_event_outbox ORDER BY id", Long.class);
+    }
+
+    @Test
+    void relay_deletesRowsOnlyAfterTheirConfirmsComplete() {
+        outbox.append(new UserEventMessage(1L, Events.USER_CREATED, DateUtils.now()));
+        outbox.append(new UserEventMessage(2L, Events.USER_UPDATED, DateUtils.now()));
+        var delayed = CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS);
+        confirmWith(CompletableFuture.runAsync(() -> {}, delayed), CompletableFuture.runAsync(() -> {}, delayed));
+        doAnswer(invocation -> {
+            assertThat(confirms).allMatch(CompletableFuture::isDone);
+            return invocation.callRealMethod();
+        }).when(jdbcTemplate).update(startsWith("DELETE FROM user_event_outbox WHERE"), any(Object[].class));
+
+        relay.relay();
+
+        verify(publisher).publish(eq("events.topic"), eq("user.created"), any());
+        verify(publisher).publish(eq("events.topic"), eq("user.updated"), any());
+        assertThat(remainingIds()).isEmpty();
+    }
+
+    @Test
+    void relay_keepsNackedRows() {
+        outbox.append(new UserEventMessage(1L, Events.USER_CREATED, DateUtils.now()));
+        outbox.append(new UserEventMessage(2L, Events.USER_UPDATED, DateUtils.now()));
+        var ids = remainingIds();
+        confirmWith(CompletableFuture.completedFuture(null), CompletableFuture.failedFuture(new AmqpException("nacked")));
+
+        relay.relay();
+
+        assertThat(remainingIds()).containsExactly(ids.get(1));
+        // Released straight away rather than waiting for the claim to lapse.
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_event_outbox WHERE claimed_until IS NOT NULL", Integer.class)).isZero();
+    }
+
+    @Test
+    void relay_movesUnreadableRowsAside_andStillPublishesTheRest() {
+        jdbcTemplate.update("INSERT INTO user_event_outbox(payload, created_at) VALUES (?, ?)", "{not json", Timestamp.valueOf(DateUtils.now()));
+        outbox.append(new UserEventMessage(2L, Events.USER_UPDATED, DateUtils.now()));
+        var badId = remainingIds().get(0);
+        confirmWith(CompletableFuture.completedFuture(null));
+
+        relay.relay();
+
+        verify(publisher, times(1)).publish(eq("events.topic"), eq("user.updated"), any());
+        assertThat(remainingIds()).isEmpty();
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM user_event_outbox_failed", Long.class)).containsExactly(badId);
+    }
+
+    @Test
+    void relay_skipsRowsClaimedByAnotherRelay() {
+        outbox.append(new UserEventMessage(1L, Events.USER_CREATED, DateUtils.now()));
+        jdbcTemplate.update("UPDATE user_event_outbox SET claimed_until = ?", Timestamp.valueOf(DateUtils.now().plusMinutes(1)));
+
+        relay.relay();
+
+        verify(publisher, never()).publish(anyString(), anyString(), any());
+        assertThat(remainingIds()).hasSize(1);
+    }
+
+    @Test
+    void relay_keepsRowsWhoseConfirmTimesOut() {
+        outbox.append(new UserEventMessage(1L, Events.USER_CREATED, DateUtils.now()));
+        var ids = remainingIds();
+        confirmWith(new CompletableFuture<>());
+
+        relay.relay();
+
+        assertThat(remainingIds()).containsExactlyElementsOf(ids);
+        verify(jdbcTemplate, never()).update(startsWith("DELETE FROM user_event_outbox WHERE"), any(Object[].class));
+    }
+}
@@ -0,0 +1,164 @@
+package com.bytebard.core.api.repositories;
+
+import com.bytebard.core.api.config.PostgresTestDatabase;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Plans are checked on PostgreSQL with the Flyway schema. Native queries are read from the repository annotations;
+// JPQL queries are run through Hibernate and the SQL it sends is captured and explained.
+@Testcontainers(disabledWithoutDocker = true)
+public class MembershipQueryPlanTest {
+    private static final int USERS = 20_000;
+    private static final int DEPARTMENTS = 200;
+
+    private DataSourceTransactionManager transactionManager;
+    private TransactionStatus transaction;
+    private JdbcTemplate jdbcTemplate;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private UserRepository userRepository;
+    private final List<String> hibernateSql = new ArrayList<>();
+
+    private long managerId;
+    private long colleagueId;
+    private long departmentId;
+
+    @BeforeEach
+    void seed() {
+        var dataSource = PostgresTestDatabase.dataSource();
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        transaction = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.update("INSERT INTO users(first_name, last_name, password, email, status, created_at) " +
+                "SELECT 'f', 'l', 'pw', 'plan' || g || '@ex.com', 'ACTIVE', now() FROM generate_series(1, " + USERS + ") g");
+        jdbcTemplate.update("INSERT INTO departments(name) SELECT 'Plan dept ' || g FROM generate_series(1, " + DEPARTMENTS + ") g");
+        // Sequences allocate in blocks, so users are spread over departments by position rather than by id arithmetic.
+        jdbcTemplate.update("""
+                INSERT INTO user_departments(user_id, department_id)
+                SELECT u.id, d.id
+                FROM (SELECT id, row_number() OVER (ORDER BY id) AS rn FROM users WHERE email LIKE 'plan%@ex.com') u
+                JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS rn FROM departments WHERE name LIKE 'Plan dept %') d
+                  ON d.rn = u.rn % ?
+                """, DEPARTMENTS);
+        jdbcTemplate.execute("ANALYZE users, departments, user_departments");
+
+        managerId = userId("plan1@ex.com");
+        colleagueId = userId("plan" + (1 + DEPARTMENTS) + "@ex.com");
+        departmentId = jdbcTemplate.queryForObject("SELECT department_id FROM user_departments WHERE user_id = ?", Long.class, managerId);
+
+        // The proxy hands Hibernate the connection bound to the test transaction, so it sees the seeded rows.
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(new TransactionAwareDataSourceProxy(dataSource));
+        entityManagerFactory.setPackagesToScan("com.bytebard.core.api");
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaPropertyMap(Map.of(
+                AvailableSettings.HBM2DDL_AUTO, "none",
+                AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                    hibernateSql.add(sql);
+                    return sql;
+                }));
+        entityManagerFactory.afterPropertiesSet();
+        var entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory.getObject());
+        userRepository = new JpaRepositoryFactory(entityManager).getRepository(UserRepository.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.destroy();
+        transactionManager.rollback(transaction);
+    }
+
+    private long userId(String email) {
+        return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+
+    private static String nativeQuery(Class<?> repository, String method, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return repository.getMethod(method, parameterTypes).getAnnotation(Query.class).value();
+    }
+
+    // EXPLAIN cannot take bind parameters, so the named parameters are inlined as literals.
+    private static String bind(String sql, Map<String, Long> params) {
+        for (var param : params.entrySet()) {
+            sql = sql.replace(":" + param.getKey(), String.valueOf(param.getValue()));
+        }
+        return sql;
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+
+    // Hibernate's SQL uses JDBC placeholders; GENERIC_PLAN (PostgreSQL 16) explains it without binding values.
+    private String explainGeneric(String sql) {
+        var numbered = new StringBuilder();
+        int param = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++param);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numbered, String.class));
+    }
+
+    private String lastHibernateSql() {
+        assertFalse(hibernateSql.isEmpty(), "Hibernate did not run a query");
+        return hibernateSql.get(hibernateSql.size() - 1);
+    }
+
+    private static void assertNoSeqScanOf(String table, String plan) {
+        assertFalse(plan.contains("Seq Scan on " + table), () -> "expected an index lookup on " + table + " but got:\n" + plan);
+    }
+
+    @Test
+    void managerScope_listingProbesUserDepartmentsThroughIndexes() {
+        var page = userRepository.findUsersInSameDepartmentsAsManager(managerId, PageRequest.of(0, 10));
+
+        assertEquals(10, page.getNumberOfElements());
+        assertNoSeqScanOf("user_departments", explainGeneric(lastHibernateSql()));
+    }
+
+    @Test
+    void managerScope_countProbesUserDepartmentsThroughIndexes() {
+        assertEquals(USERS / DEPARTMENTS, userRepository.countUsersInSameDepartmentsAsManager(managerId));
+        assertNoSeqScanOf("user_departments", explainGeneric(lastHibernateSql()));
+    }
+
+    @Test
+    void hasAccessToUser_probesUserDepartmentsThroughIndexes() throws Exception {
+        var sql = bind(nativeQuery(DepartmentRepository.class, "hasAccessToUser", Long.class, Long.class),
+                Map.of("empId", colleagueId, "managerId", managerId));
+
+        assertNoSeqScanOf("user_departments", explain(sql));
+        assertTrue(jdbcTemplate.queryForObject(sql, Boolean.class));
+    }
+
+    @Test
+    void departmentDelete_findsMembersThroughDepartmentIndex() throws Exception {
+        var sql = bind(nativeQuery(DepartmentRepository.class, "deleteDepartmentUsers", Long.class), Map.of("departmentId", departmentId));
+
+        assertNoSeqScanOf("user_departments", explain(sql));
+    }
+}
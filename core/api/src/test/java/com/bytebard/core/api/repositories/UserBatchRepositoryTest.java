@@ -0,0 +1,98 @@
+package com.bytebard.core.api.repositories;
+
+import com.bytebard.core.api.config.PersistenceJpaConfigTest;
+import com.bytebard.core.api.models.Department;
+import com.bytebard.core.api.models.Role;
+import com.bytebard.core.api.models.Status;
+import com.bytebard.core.api.models.User;
+import com.bytebard.utils.DateUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = { PersistenceJpaConfigTest.class })
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class UserBatchRepositoryTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private JdbcTemplate jdbcTemplate;
+    private UserBatchRepository userBatchRepository;
+    private Role role;
+    private Department department;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        userBatchRepository = new UserBatchRepository(jdbcTemplate, em.getEntityManager());
+
+        role = new Role(Role.EMPLOYEE);
+        em.persist(role);
+        department = new Department("Engineering");
+        em.persist(department);
+        em.persist(new User("Existing", "User", "pwd", "existing@email.com", Status.ACTIVE, DateUtils.now()));
+        em.flush();
+    }
+
+    @Test
+    void findExisting_returnsOnlyMatchingValues() {
+        assertThat(userBatchRepository.findExistingEmails(List.of("existing@email.com", "new@email.com")))
+                .containsExactly("existing@email.com");
+        assertThat(userBatchRepository.findExistingDepartmentIds(List.of(department.getId(), 9999L)))
+                .containsExactly(department.getId());
+    }
+
+    @Test
+    void insertUsers_assignsGeneratedIds_acrossMultipleBatches() {
+        var count = UserBatchRepository.BATCH_SIZE + 3;
+        var users = new ArrayList<User>();
+        IntStream.range(0, count).forEach(i ->
+                users.add(new User("First" + i, "Last" + i, "hash", "batch" + i + "@email.com", Status.INACTIVE, DateUtils.now())));
+
+        userBatchRepository.insertUsers(users);
+        userBatchRepository.insertUserRoles(users.stream().map(u -> new long[]{u.getId(), role.getId()}).toList());
+        userBatchRepository.insertUserDepartments(users.stream().map(u -> new long[]{u.getId(), department.getId()}).toList());
+
+        assertThat(users).allMatch(u -> u.getId() > 0);
+        assertThat(users.stream().map(User::getId).distinct().count()).isEqualTo(count);
+        assertThat(jdbcTemplate.queryForObject("SELECT email FROM users WHERE id = ?", String.class, users.get(count - 1).getId()))
+                .isEqualTo("batch" + (count - 1) + "@email.com");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_roles WHERE role_id = ?", Integer.class, role.getId()))
+                .isEqualTo(count);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_departments WHERE department_id = ?", Integer.class, department.getId()))
+                .isEqualTo(count);
+    }
+
+    @Test
+    void persist_assignsPooledSequenceIds_withoutExecutingInsert() {
+        var first = new User("Pooled", "One", "pwd", "pooled1@email.com", Status.INACTIVE, DateUtils.now());
+        var second = new User("Pooled", "Two", "pwd", "pooled2@email.com", Status.INACTIVE, DateUtils.now());
+
+        em.persist(first);
+        em.persist(second);
+
+        assertThat(first.getId()).isPositive();
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE 'pooled%'", Integer.class)).isZero();
+    }
+}
@@ -5,6 +5,7 @@ import com.bytebard.core.api.models.Department;
 import com.bytebard.core.api.models.Status;
 import com.bytebard.core.api.models.User;
 import com.bytebard.core.api.models.UserDepartment;
+import com.bytebard.core.api.types.UserDTO;
 import com.bytebard.utils.DateUtils;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
@@ -14,11 +15,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -76,7 +79,7 @@ public class UserRepositoryFindUsersTest {
         em.clear();
 
         var page = userRepository.findUsersInSameDepartmentsAsManager(manager.getId(), PageRequest.of(0, 10));
-        List<Long> ids = page.getContent().stream().map(User::getId).toList();
+        List<Long> ids = page.getContent().stream().map(UserDTO::getId).toList();
 
         assertTrue(ids.contains(manager.getId()), "result should include the manager");
         assertTrue(ids.contains(userA.getId()), "result should include userA in same dept");
@@ -86,7 +89,7 @@ public class UserRepositoryFindUsersTest {
     @Test
     @Transactional
     @Rollback
-    void findUsersInSameDepartmentsAsManager_respectsPagination_andTotalCount() {
+    void findUsersInSameDepartmentsAsManager_respectsPagination_withoutCounting() {
         manager = em.find(User.class, manager.getId());
         dept1 = em.find(Department.class, dept1.getId());
         em.persist(new UserDepartment(manager.getId(), dept1.getId()));
@@ -104,11 +107,13 @@ public class UserRepositoryFindUsersTest {
 
         var page0 = userRepository.findUsersInSameDepartmentsAsManager(manager.getId(), PageRequest.of(0, 10));
         assertEquals(10, page0.getContent().size());
-        assertEquals(16, page0.getTotalElements());
-        assertEquals(2, page0.getTotalPages());
+        assertTrue(page0.hasNext());
 
         var page1 = userRepository.findUsersInSameDepartmentsAsManager(manager.getId(), PageRequest.of(1, 10));
         assertEquals(6, page1.getContent().size());
+        assertFalse(page1.hasNext());
+
+        assertEquals(16, userRepository.countUsersInSameDepartmentsAsManager(manager.getId()));
     }
 
     @Test
@@ -136,7 +141,7 @@ public class UserRepositoryFindUsersTest {
         em.clear();
 
         var page = userRepository.findUsersInSameDepartmentsAsManager(manager.getId(), PageRequest.of(0, 10));
-        List<Long> ids = page.getContent().stream().map(User::getId).toList();
+        List<Long> ids = page.getContent().stream().map(UserDTO::getId).toList();
 
         assertTrue(ids.contains(user1.getId()));
         assertTrue(ids.contains(user2.getId()));
@@ -152,7 +157,45 @@ public class UserRepositoryFindUsersTest {
 
         var page = userRepository.findUsersInSameDepartmentsAsManager(manager.getId(), PageRequest.of(0, 10));
         assertNotNull(page);
-        assertEquals(0, page.getTotalElements());
+        assertFalse(page.hasNext());
         assertTrue(page.getContent().isEmpty());
+        assertEquals(0, userRepository.countUsersInSameDepartmentsAsManager(manager.getId()));
+    }
+
+    @Test
+    @Transactional
+    @Rollback
+    void findUsersInSameDepartmentsAsManagerAfter_walksPagesInIdOrder_withoutDuplicates() {
+        manager = em.find(User.class, manager.getId());
+        dept1 = em.find(Department.class, dept1.getId());
+        dept2 = em.find(Department.class, dept2.getId());
+        em.persist(new UserDepartment(manager.getId(), dept1.getId()));
+        em.persist(new UserDepartment(manager.getId(), dept2.getId()));
+
+        List<User> created = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> new User("k" + i, "last" + i, "pw", "k" + i + "@ex.com", Status.ACTIVE, DateUtils.now()))
+                .peek(em::persist)
+                .toList();
+        em.flush();
+        created.forEach(u -> {
+            em.persist(new UserDepartment(u.getId(), dept1.getId()));
+            em.persist(new UserDepartment(u.getId(), dept2.getId()));
+        });
+        em.flush();
+        em.clear();
+
+        var seen = new ArrayList<Long>();
+        long afterId = 0L;
+        while (true) {
+            var page = userRepository.findUsersInSameDepartmentsAsManagerAfter(manager.getId(), afterId, Limit.of(4));
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(u -> seen.add(u.getId()));
+            afterId = page.get(page.size() - 1).getId();
+        }
+
+        assertEquals(6, seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen);
     }
 }
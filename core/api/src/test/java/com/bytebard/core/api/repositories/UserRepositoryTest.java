@@ -7,6 +7,7 @@ import com.bytebard.core.api.models.User;
 import com.bytebard.core.api.models.UserRole;
 import com.bytebard.utils.DateUtils;
 import jakarta.transaction.Transactional;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -69,6 +70,18 @@ public class UserRepositoryTest {
         assertTrue(roles.stream().allMatch(r -> Role.ADMIN.equals(r.getName())));
     }
 
+    @Test
+    void incrementTokenEpoch_addsToTheStoredEpoch_andKeepsPendingChanges() {
+        var user = userRepository.findById(adminUser.getId()).orElseThrow();
+        user.setFirstName("renamed");
+
+        userRepository.incrementTokenEpoch(user.getId());
+        userRepository.incrementTokenEpoch(user.getId());
+
+        assertEquals(Optional.of(2), userRepository.findTokenEpochById(user.getId()));
+        assertEquals("renamed", userRepository.findById(user.getId()).orElseThrow().getFirstName());
+    }
+
     @Test
     void findByEmail_returnsOptionalUser() {
         Optional<User> maybe = userRepository.findByEmail(adminUser.getEmail());
@@ -76,6 +89,17 @@ public class UserRepositoryTest {
         assertEquals(adminUser.getEmail(), maybe.get().getEmail());
     }
 
+    @Test
+    void findDtoById_projectsColumnsWithoutLoadingEntity() {
+        var dto = userRepository.findDtoById(adminUser.getId()).orElseThrow();
+
+        assertEquals(adminUser.getId(), dto.getId());
+        assertEquals(adminUser.getEmail(), dto.getEmail());
+        assertEquals(Status.ACTIVE, dto.getStatus());
+        assertEquals(0, em.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+        assertTrue(userRepository.findDtoById(-1L).isEmpty());
+    }
+
     @Test
     void userHasAnyRole_worksForMultipleRoles() {
         boolean any = userRepository.userHasAnyRole(adminUser.getId(), List.of(Role.ADMIN, Role.EMPLOYEE));
@@ -111,4 +135,14 @@ public class UserRepositoryTest {
         assertNotNull(u.getRoles());
         assertTrue(u.getRoles().stream().anyMatch(r -> Role.ADMIN.equals(r.getName())));
     }
+
+    @Test
+    void findStatusAndRoleIdsById_returnsRoleIdsWithoutJoiningRoles() {
+        var rows = userRepository.findStatusAndRoleIdsById(adminUser.getId());
+
+        assertEquals(1, rows.size());
+        assertEquals(Status.ACTIVE, rows.get(0)[0]);
+        assertEquals(rAdmin.getId(), ((Number) rows.get(0)[1]).longValue());
+        assertTrue(userRepository.findStatusAndRoleIdsById(-1L).isEmpty());
+    }
 }
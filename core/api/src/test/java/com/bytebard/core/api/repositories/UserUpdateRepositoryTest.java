@@ -0,0 +1,122 @@
+package com.bytebard.core.api.repositories;
+
+import com.bytebard.core.api.config.PostgresTestDatabase;
+import com.bytebard.core.api.config.StatementCountingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Runs the CTE on PostgreSQL because H2 does not support data-modifying statements inside WITH.
+@Testcontainers(disabledWithoutDocker = true)
+public class UserUpdateRepositoryTest {
+
+    private StatementCountingDataSource dataSource;
+    private DataSourceTransactionManager transactionManager;
+    private TransactionStatus transaction;
+    private JdbcTemplate jdbcTemplate;
+    private UserUpdateRepository userUpdateRepository;
+
+    private long engineering;
+    private long finance;
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new StatementCountingDataSource(PostgresTestDatabase.dataSource());
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        transaction = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        userUpdateRepository = new UserUpdateRepository(jdbcTemplate);
+
+        engineering = insertDepartment("Engineering");
+        finance = insertDepartment("Finance");
+        userId = insertUser("John", "Doe", "john@example.com");
+        insertUser("Jane", "Doe", "jane@example.com");
+        jdbcTemplate.update("INSERT INTO user_departments (user_id, department_id) VALUES (?, ?)", userId, engineering);
+        dataSource.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionManager.rollback(transaction);
+    }
+
+    private long insertDepartment(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO departments (name) VALUES (?) RETURNING id", Long.class, name);
+    }
+
+    private long insertUser(String firstName, String lastName, String email) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO users (first_name, last_name, email, status, created_at) VALUES (?, ?, ?, 'ACTIVE', now()) RETURNING id",
+                Long.class, firstName, lastName, email);
+    }
+
+    private List<Long> departmentsOf(long id) {
+        return jdbcTemplate.queryForList("SELECT department_id FROM user_departments WHERE user_id = ?", Long.class, id);
+    }
+
+    @Test
+    void update_movesUserToDepartment_inOneStatement() {
+        var result = userUpdateRepository.update(userId, "Johnny", "Smith", "johnny@example.com", finance);
+
+        assertThat(dataSource.executedStatements()).isEqualTo(1);
+        assertThat(result.userFound()).isTrue();
+        assertThat(result.departmentFound()).isTrue();
+        assertThat(result.user().getId()).isEqualTo(userId);
+        assertThat(result.user().getFirstName()).isEqualTo("Johnny");
+        assertThat(result.user().getLastName()).isEqualTo("Smith");
+        assertThat(result.user().getEmail()).isEqualTo("johnny@example.com");
+        assertThat(result.user().getStatus()).isEqualTo("ACTIVE");
+        assertThat(departmentsOf(userId)).containsExactly(finance);
+    }
+
+    @Test
+    void update_keepsMembership_whenDepartmentIsUnchanged() {
+        var result = userUpdateRepository.update(userId, "Johnny", "Doe", "john@example.com", engineering);
+
+        assertThat(dataSource.executedStatements()).isEqualTo(1);
+        assertThat(result.user().getFirstName()).isEqualTo("Johnny");
+        assertThat(departmentsOf(userId)).containsExactly(engineering);
+    }
+
+    @Test
+    void update_reportsMissingUser_inOneStatement() {
+        var result = userUpdateRepository.update(-1L, "Ghost", "User", "ghost@example.com", finance);
+
+        assertThat(dataSource.executedStatements()).isEqualTo(1);
+        assertThat(result.userFound()).isFalse();
+        assertThat(result.departmentFound()).isTrue();
+        assertThat(result.user()).isNull();
+    }
+
+    @Test
+    void update_reportsMissingDepartment_andLeavesUserUntouched() {
+        var result = userUpdateRepository.update(userId, "Johnny", "Smith", "johnny@example.com", -1L);
+
+        assertThat(dataSource.executedStatements()).isEqualTo(1);
+        assertThat(result.userFound()).isTrue();
+        assertThat(result.departmentFound()).isFalse();
+        assertThat(result.user()).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT first_name FROM users WHERE id = ?", String.class, userId)).isEqualTo("John");
+        assertThat(departmentsOf(userId)).containsExactly(engineering);
+    }
+
+    @Test
+    void update_throwsDuplicateKey_whenEmailBelongsToAnotherUser() {
+        assertThatThrownBy(() -> userUpdateRepository.update(userId, "John", "Doe", "jane@example.com", finance))
+                .isInstanceOf(DuplicateKeyException.class);
+
+        assertThat(dataSource.executedStatements()).isEqualTo(1);
+    }
+}
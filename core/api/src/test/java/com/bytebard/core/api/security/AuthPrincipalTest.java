@@ -0,0 +1,45 @@
+package com.bytebard.core.api.security;
+
+import com.bytebard.core.api.models.Role;
+import com.bytebard.core.api.models.Status;
+import com.bytebard.core.api.models.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthPrincipalTest {
+
+    @Test
+    void of_mapsRoleNamesToBits_ignoringCaseAndUnknownRoles() {
+        var principal = AuthPrincipal.of(1L, Status.ACTIVE, List.of("manager", Role.EMPLOYEE, "AUDITOR", ""));
+
+        assertEquals(AuthPrincipal.MANAGER | AuthPrincipal.EMPLOYEE, principal.roleBits());
+        assertTrue(principal.isManager());
+        assertTrue(principal.isEmployee());
+        assertFalse(principal.isAdmin());
+    }
+
+    @Test
+    void from_copiesIdStatusAndRolesFromUser() {
+        var user = new User(5L);
+        user.setStatus(Status.INACTIVE);
+        user.setRoles(Set.of(new Role(Role.ADMIN)));
+
+        var principal = AuthPrincipal.from(user);
+
+        assertEquals(new AuthPrincipal(5L, Status.INACTIVE, AuthPrincipal.ADMIN), principal);
+    }
+
+    @Test
+    void authorities_areSharedPerRoleCombination() {
+        var first = new AuthPrincipal(1L, Status.ACTIVE, AuthPrincipal.ADMIN | AuthPrincipal.MANAGER);
+        var second = new AuthPrincipal(2L, Status.ACTIVE, AuthPrincipal.ADMIN | AuthPrincipal.MANAGER);
+
+        assertSame(first.authorities(), second.authorities());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_MANAGER"), first.authorities().stream().map(a -> a.getAuthority()).toList());
+        assertTrue(new AuthPrincipal(3L, Status.ACTIVE, 0).authorities().isEmpty());
+    }
+}
@@ -2,6 +2,7 @@ package com.bytebard.core.api.security;
 
 import com.bytebard.core.api.models.User;
 import com.bytebard.core.api.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -22,7 +23,7 @@ public class JwtAuthenticationTokenProviderTest {
     void setUp() {
         passwordEncoder = mock(PasswordEncoder.class);
         userRepository = mock(UserRepository.class);
-        provider = new JwtAuthenticationTokenProvider(passwordEncoder, userRepository);
+        provider = new JwtAuthenticationTokenProvider(new PasswordHashingExecutor(passwordEncoder, new SimpleMeterRegistry(), 2, 8, 5000), userRepository);
     }
 
     @Test
@@ -0,0 +1,69 @@
+package com.bytebard.core.api.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PasswordHashingExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void matches_delegatesToEncoder_andRecordsHashTime() {
+        var encoder = mock(PasswordEncoder.class);
+        var registry = new SimpleMeterRegistry();
+        when(encoder.matches("raw", "encoded")).thenReturn(true);
+        executor = new PasswordHashingExecutor(encoder, registry, 1, 1, 5000);
+
+        assertTrue(executor.matches("raw", "encoded"));
+        assertEquals(1, registry.get("auth.password.hash").tag("operation", "matches").timer().count());
+        assertEquals(1, registry.get("auth.password.wait").timer().count());
+    }
+
+    @Test
+    void whenQueueIsFull_thenRejectsWithTooManyRequests() throws Exception {
+        var encoder = mock(PasswordEncoder.class);
+        var started = new CountDownLatch(1);
+        when(encoder.encode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        var registry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor(encoder, registry, 1, 1, 5000);
+
+        var running = CompletableFuture.supplyAsync(() -> executor.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var queued = CompletableFuture.supplyAsync(() -> executor.encode("second"));
+        while (registry.get("auth.password.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        var ex = assertThrows(HttpClientErrorException.class, () -> executor.encode("third"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getStatusCode());
+        assertEquals(1.0, registry.get("auth.password.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+}
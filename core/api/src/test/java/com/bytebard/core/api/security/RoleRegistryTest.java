@@ -0,0 +1,81 @@
+package com.bytebard.core.api.security;
+
+import com.bytebard.core.api.models.Role;
+import com.bytebard.core.api.repositories.RoleRepository;
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import com.bytebard.utils.DateUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RoleRegistryTest {
+
+    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
+
+    @BeforeEach
+    void setUp() {
+        roleRepository = mock(RoleRepository.class);
+        when(roleRepository.findAll()).thenReturn(List.of(role(Role.ADMIN, 7L), role(Role.EMPLOYEE, 9L), role("AUDITOR", 11L)));
+        roleRegistry = new RoleRegistry(roleRepository);
+        roleRegistry.load();
+    }
+
+    private static Role role(String name, long id) {
+        var role = new Role(name);
+        role.setId(id);
+        return role;
+    }
+
+    @Test
+    void find_resolvesLoadedRolesByName() {
+        var admin = roleRegistry.find(Role.ADMIN).orElseThrow();
+
+        assertEquals(7L, admin.id());
+        assertEquals(AuthPrincipal.ADMIN, admin.bit());
+        assertTrue(roleRegistry.contains(Role.EMPLOYEE));
+        assertFalse(roleRegistry.contains(Role.MANAGER));
+        assertFalse(roleRegistry.contains(null));
+        assertTrue(roleRegistry.find(null).isEmpty());
+    }
+
+    @Test
+    void load_skipsRolesWithoutAuthorizationBit() {
+        assertFalse(roleRegistry.contains("AUDITOR"));
+        assertEquals(0, roleRegistry.bitOf(11L));
+    }
+
+    @Test
+    void bitOf_mapsRoleIdsToPrincipalBits() {
+        assertEquals(AuthPrincipal.ADMIN, roleRegistry.bitOf(7L));
+        assertEquals(AuthPrincipal.EMPLOYEE, roleRegistry.bitOf(9L));
+        assertEquals(0, roleRegistry.bitOf(42L));
+    }
+
+    @Test
+    void find_doesNotQueryRepositoryAfterLoad() {
+        roleRegistry.find(Role.ADMIN);
+        roleRegistry.contains(Role.EMPLOYEE);
+        roleRegistry.bitOf(9L);
+
+        verify(roleRepository, times(1)).findAll();
+        verifyNoMoreInteractions(roleRepository);
+    }
+
+    @Test
+    void onUserEvent_reloadsOnlyWhenRolesChanged() {
+        when(roleRepository.findAll()).thenReturn(List.of(role(Role.MANAGER, 8L)));
+
+        roleRegistry.onUserEvent(new UserEventMessage(1L, Events.USER_UPDATED, DateUtils.now()));
+        assertTrue(roleRegistry.contains(Role.ADMIN));
+
+        roleRegistry.onUserEvent(new UserEventMessage(null, Events.ROLES_CHANGED, DateUtils.now()));
+        assertFalse(roleRegistry.contains(Role.ADMIN));
+        assertEquals(AuthPrincipal.MANAGER, roleRegistry.bitOf(8L));
+    }
+}
@@ -1,6 +1,7 @@
 plugins {
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency)
+    alias(libs.plugins.jmh)
 }
 
 dependencyManagement {
@@ -14,5 +15,17 @@ dependencyManagement {
 dependencies {
     implementation(libs.spring.boot.starter.web)
     implementation(libs.spring.boot.starter.amqp)
+    implementation(libs.micrometer.core)
     implementation(project(":core:utils"))
-}
\ No newline at end of file
+    testImplementation(libs.spring.boot.starter.test)
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
+jmh {
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+}
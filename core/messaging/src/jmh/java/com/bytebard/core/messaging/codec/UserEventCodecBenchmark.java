@@ -0,0 +1,57 @@
+package com.bytebard.core.messaging.codec;
+
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import com.bytebard.utils.DateUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserEventCodecBenchmark {
+
+    @Param({"JSON", "BINARY"})
+    private UserEventMessageConverter.Encoding encoding;
+
+    @Param({"single", "batch"})
+    private String shape;
+
+    private UserEventMessageConverter converter;
+    private UserEventMessage event;
+    private Message encoded;
+
+    @Setup
+    public void setUp() {
+        converter = new UserEventMessageConverter(new Jackson2JsonMessageConverter(), encoding);
+        event = shape.equals("single")
+                ? new UserEventMessage(123_456L, Events.USER_UPDATED, DateUtils.now())
+                : new UserEventMessage(null, Events.USERS_CREATED, DateUtils.now(), LongStream.range(100_000, 100_500).boxed().toList());
+        encoded = converter.toMessage(event, new MessageProperties());
+        encoded.getMessageProperties().setInferredArgumentType(UserEventMessage.class);
+    }
+
+    // Reported next to the timings as encode:payloadBytes; the field holds the last size rather than a running sum.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+        public long payloadBytes;
+    }
+
+    @Benchmark
+    public Message encode(PayloadSize size) {
+        var message = converter.toMessage(event, new MessageProperties());
+        size.payloadBytes = message.getBody().length;
+        return message;
+    }
+
+    @Benchmark
+    public Object decode() {
+        return converter.fromMessage(encoded);
+    }
+}
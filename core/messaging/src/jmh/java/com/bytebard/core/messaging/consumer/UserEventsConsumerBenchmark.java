@@ -0,0 +1,102 @@
+package com.bytebard.core.messaging.consumer;
+
+import com.bytebard.core.messaging.config.MessagingConfig;
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import com.bytebard.utils.DateUtils;
+import com.rabbitmq.client.Channel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MethodRabbitListenerEndpoint;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Needs a broker: -Drabbitmq.host / -Drabbitmq.port, defaulting to a local RabbitMQ on 5672 with guest credentials.
+// Drives UserEventsConsumer through the shipped batchListenerContainerFactory, manual acks included;
+// batchSize 1 approximates the old one-message-per-invocation listener.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserEventsConsumerBenchmark {
+    private static final int MESSAGES = 10_000;
+
+    @Param({"1", "100"})
+    private int batchSize;
+
+    private CachingConnectionFactory connectionFactory;
+    private MessageListenerContainer container;
+    private RabbitTemplate template;
+    private String queueName;
+    private final Semaphore received = new Semaphore(0);
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        connectionFactory = new CachingConnectionFactory(
+                System.getProperty("rabbitmq.host", "localhost"),
+                Integer.getInteger("rabbitmq.port", 5672)
+        );
+        connectionFactory.setUsername(System.getProperty("rabbitmq.username", "guest"));
+        connectionFactory.setPassword(System.getProperty("rabbitmq.password", "guest"));
+        queueName = new RabbitAdmin(connectionFactory).declareQueue(new AnonymousQueue());
+
+        var config = new MessagingConfig();
+        set(config, "eventsBatchSize", batchSize);
+        set(config, "eventsReceiveTimeoutMs", 500L);
+        set(config, "eventsPrefetch", 250);
+        set(config, "outboundEncoding", "json");
+        var converter = config.messageConverter();
+        template = config.rabbitTemplate(connectionFactory, converter);
+
+        // Counts messages once the real handler has acked or nacked its batch.
+        var consumer = new UserEventsConsumer() {
+            @Override
+            public void handleUserEvents(List<Message<UserEventMessage>> messages, Channel channel) throws IOException {
+                super.handleUserEvents(messages, channel);
+                received.release(messages.size());
+            }
+        };
+        var handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.afterPropertiesSet();
+        var endpoint = new MethodRabbitListenerEndpoint();
+        endpoint.setId("user-events-benchmark");
+        endpoint.setQueueNames(queueName);
+        endpoint.setBean(consumer);
+        endpoint.setMethod(UserEventsConsumer.class.getMethod("handleUserEvents", List.class, Channel.class));
+        endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+        endpoint.setBatchListener(true);
+
+        container = config.batchListenerContainerFactory(connectionFactory, converter).createListenerContainer(endpoint);
+        container.start();
+    }
+
+    private static void set(Object target, String name, Object value) {
+        var field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.stop();
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public void consumeBurst() throws InterruptedException {
+        for (int i = 0; i < MESSAGES; i++) {
+            template.convertAndSend("", queueName, new UserEventMessage((long) i, Events.USER_UPDATED, DateUtils.now()));
+        }
+        received.acquire(MESSAGES);
+    }
+}
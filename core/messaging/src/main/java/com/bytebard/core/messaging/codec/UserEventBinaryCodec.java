@@ -0,0 +1,170 @@
+package com.bytebard.core.messaging.codec;
+
+import com.bytebard.core.messaging.models.UserEventMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Layout: version, flags, event type (varint length + 1, then UTF-8), timestamp (zigzag epoch seconds + nanos),
+// then the user id and the delta-encoded user ids when their flag is set. Integers are LEB128 varints.
+public final class UserEventBinaryCodec {
+    public static final byte VERSION = 1;
+
+    private static final int HAS_USER_ID = 1;
+    private static final int HAS_USER_IDS = 1 << 1;
+    private static final int HAS_TIMESTAMP = 1 << 2;
+    private static final int KNOWN_FLAGS = HAS_USER_ID | HAS_USER_IDS | HAS_TIMESTAMP;
+
+    private UserEventBinaryCodec() {
+    }
+
+    public static byte[] encode(UserEventMessage message) {
+        var out = new ByteArrayOutputStream(32);
+        int flags = (message.userId() != null ? HAS_USER_ID : 0)
+                | (message.userIds() != null ? HAS_USER_IDS : 0)
+                | (message.timestamp() != null ? HAS_TIMESTAMP : 0);
+        out.write(VERSION);
+        out.write(flags);
+
+        // Length is stored plus one so that zero can stand for a missing event type.
+        if (message.eventType() == null) {
+            writeVarint(out, 0);
+        } else {
+            var eventType = message.eventType().getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, eventType.length + 1L);
+            out.write(eventType, 0, eventType.length);
+        }
+
+        if (message.timestamp() != null) {
+            // LocalDateTime has no zone; reading it as UTC only serves as a fixed reference point.
+            writeVarint(out, zigzag(message.timestamp().toEpochSecond(ZoneOffset.UTC)));
+            writeVarint(out, message.timestamp().getNano());
+        }
+        if (message.userId() != null) {
+            writeVarint(out, zigzag(message.userId()));
+        }
+        if (message.userIds() != null) {
+            writeVarint(out, message.userIds().size());
+            long previous = 0;
+            for (var id : message.userIds()) {
+                writeVarint(out, zigzag(id - previous));
+                previous = id;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static UserEventMessage decode(byte[] bytes) {
+        var in = new Reader(bytes);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported user event codec version " + version);
+        }
+        int flags = in.readByte();
+        if ((flags & ~KNOWN_FLAGS) != 0) {
+            throw new IllegalArgumentException("Unknown user event flags " + flags);
+        }
+
+        String eventType = null;
+        long encodedLength = in.readVarint();
+        if (encodedLength != 0) {
+            int eventTypeLength = in.checkRemaining(encodedLength - 1);
+            eventType = new String(bytes, in.take(eventTypeLength), eventTypeLength, StandardCharsets.UTF_8);
+        }
+
+        LocalDateTime timestamp = null;
+        if ((flags & HAS_TIMESTAMP) != 0) {
+            long seconds = unzigzag(in.readVarint());
+            long nanos = in.readVarint();
+            try {
+                timestamp = LocalDateTime.ofEpochSecond(seconds, Math.toIntExact(nanos), ZoneOffset.UTC);
+            } catch (DateTimeException | ArithmeticException e) {
+                throw new IllegalArgumentException("Invalid user event timestamp", e);
+            }
+        }
+        Long userId = (flags & HAS_USER_ID) != 0 ? unzigzag(in.readVarint()) : null;
+        List<Long> userIds = null;
+        if ((flags & HAS_USER_IDS) != 0) {
+            // Every id takes at least one byte, which bounds the count before anything is allocated.
+            int count = in.checkRemaining(in.readVarint());
+            var ids = new ArrayList<Long>(count);
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += unzigzag(in.readVarint());
+                ids.add(previous);
+            }
+            userIds = List.copyOf(ids);
+        }
+        if (in.remaining() != 0) {
+            throw new IllegalArgumentException("Trailing bytes after user event payload");
+        }
+        return new UserEventMessage(userId, eventType, timestamp, userIds);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        private Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private int readByte() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("Truncated user event payload");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        private long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in user event payload");
+        }
+
+        private int remaining() {
+            return bytes.length - position;
+        }
+
+        private int checkRemaining(long length) {
+            if (length < 0 || length > remaining()) {
+                throw new IllegalArgumentException("Truncated user event payload");
+            }
+            return (int) length;
+        }
+
+        private int take(int length) {
+            checkRemaining(length);
+            int start = position;
+            position += length;
+            return start;
+        }
+    }
+}
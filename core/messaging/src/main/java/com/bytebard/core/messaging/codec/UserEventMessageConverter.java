@@ -0,0 +1,50 @@
+package com.bytebard.core.messaging.codec;
+
+import com.bytebard.core.messaging.models.UserEventMessage;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+// Reads whichever encoding the content-type header names, so JSON and binary publishers can coexist during a rollout.
+// Only the outbound encoding is configured; other payloads always go through the JSON delegate.
+public class UserEventMessageConverter implements MessageConverter {
+    public static final String BINARY_CONTENT_TYPE = "application/vnd.bytebard.user-event";
+
+    public enum Encoding {
+        JSON,
+        BINARY
+    }
+
+    private final MessageConverter json;
+    private final Encoding outbound;
+
+    public UserEventMessageConverter(MessageConverter json, Encoding outbound) {
+        this.json = json;
+        this.outbound = outbound;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (outbound == Encoding.BINARY && object instanceof UserEventMessage event) {
+            var body = UserEventBinaryCodec.encode(event);
+            messageProperties.setContentType(BINARY_CONTENT_TYPE);
+            messageProperties.setContentLength(body.length);
+            return new Message(body, messageProperties);
+        }
+        return json.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        var contentType = message.getMessageProperties().getContentType();
+        if (contentType != null && contentType.startsWith(BINARY_CONTENT_TYPE)) {
+            try {
+                return UserEventBinaryCodec.decode(message.getBody());
+            } catch (IllegalArgumentException e) {
+                throw new MessageConversionException("Could not decode user event", e);
+            }
+        }
+        return json.fromMessage(message);
+    }
+}
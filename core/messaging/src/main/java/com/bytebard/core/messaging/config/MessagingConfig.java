@@ -1,6 +1,8 @@
 package com.bytebard.core.messaging.config;
 
+import com.bytebard.core.messaging.codec.UserEventMessageConverter;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -8,9 +10,14 @@ import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 @Configuration
 public class MessagingConfig {
 
@@ -23,6 +30,16 @@ public class MessagingConfig {
     @Value("${spring.rabbitmq.exchanges.main}")
     private String mainExchange;
 
+    @Value("${spring.rabbitmq.exchanges.topic:${spring.rabbitmq.exchanges.main}.topic}")
+    private String topicExchange;
+
+    // Comma-separated topic patterns such as user.created,roles.#; empty keeps the queue on the legacy fanout.
+    @Value("${spring.rabbitmq.bindings.events:}")
+    private List<String> eventsBindingPatterns;
+
+    @Value("${spring.rabbitmq.bindings.instance-events:}")
+    private List<String> instanceEventsBindingPatterns;
+
     @Value("${spring.rabbitmq.exchanges.dlx}")
     private String dlxExchange;
 
@@ -41,9 +58,22 @@ public class MessagingConfig {
     @Value("${spring.rabbitmq.virtual-host:#{'/'}}")
     private String virtualHost;
 
+    @Value("${spring.rabbitmq.listeners.events.batch-size:100}")
+    private int eventsBatchSize;
+
+    @Value("${spring.rabbitmq.listeners.events.receive-timeout-ms:500}")
+    private long eventsReceiveTimeoutMs;
+
+    @Value("${spring.rabbitmq.listeners.events.prefetch:250}")
+    private int eventsPrefetch;
+
+    @Value("${spring.rabbitmq.codec.outbound:json}")
+    private String outboundEncoding;
+
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter() {
+        var encoding = UserEventMessageConverter.Encoding.valueOf(outboundEncoding.toUpperCase());
+        return new UserEventMessageConverter(new Jackson2JsonMessageConverter(), encoding);
     }
 
     @Bean
@@ -66,12 +96,29 @@ public class MessagingConfig {
     }
 
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, @Qualifier("jsonMessageConverter") MessageConverter messageConverter) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, @Qualifier("messageConverter") MessageConverter messageConverter) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(messageConverter);
         return template;
     }
 
+    // Hands the events listener up to batch-size messages per call, or whatever arrived within receive-timeout.
+    // Acks are manual so the listener can dead-letter individual messages instead of the whole batch.
+    @Bean
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(ConnectionFactory connectionFactory, @Qualifier("messageConverter") MessageConverter messageConverter) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(eventsBatchSize);
+        factory.setReceiveTimeout(eventsReceiveTimeoutMs);
+        factory.setPrefetchCount(Math.max(eventsPrefetch, eventsBatchSize));
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
     @Bean
     public Queue eventsQueue() {
         return QueueBuilder.durable(appName)
@@ -80,11 +127,31 @@ public class MessagingConfig {
                 .build();
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "spring.rabbitmq.instance-listeners.enabled", havingValue = "true", matchIfMissing = true)
+    public Queue instanceEventsQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(appName + "."));
+    }
+
     @Bean
     public FanoutExchange mainExchange() {
         return new FanoutExchange(mainExchange);
     }
 
+    @Bean
+    public TopicExchange topicExchange() {
+        return new TopicExchange(topicExchange);
+    }
+
+    // Events are published to the topic exchange; forwarding all of them to the fanout keeps legacy bindings working.
+    @Bean
+    public Binding legacyFanoutBinding(@Qualifier("mainExchange") FanoutExchange mainExchange, @Qualifier("topicExchange") TopicExchange topicExchange) {
+        return BindingBuilder
+                .bind(mainExchange)
+                .to(topicExchange)
+                .with("#");
+    }
+
     @Bean
     public DirectExchange dlxExchange() {
         return new DirectExchange(dlxExchange);
@@ -96,10 +163,31 @@ public class MessagingConfig {
     }
 
     @Bean
-    public Binding userEventsBinding(@Qualifier("eventsQueue") Queue eventsQueue, @Qualifier("mainExchange") FanoutExchange mainExchange) {
-        return BindingBuilder
-                .bind(eventsQueue)
-                .to(mainExchange);
+    public Declarables userEventsBindings(@Qualifier("eventsQueue") Queue eventsQueue, @Qualifier("mainExchange") FanoutExchange mainExchange, @Qualifier("topicExchange") TopicExchange topicExchange) {
+        return bindings(eventsQueue, eventsBindingPatterns, mainExchange, topicExchange);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.rabbitmq.instance-listeners.enabled", havingValue = "true", matchIfMissing = true)
+    public Declarables instanceEventsBindings(@Qualifier("instanceEventsQueue") Queue instanceEventsQueue, @Qualifier("mainExchange") FanoutExchange mainExchange, @Qualifier("topicExchange") TopicExchange topicExchange) {
+        return bindings(instanceEventsQueue, instanceEventsBindingPatterns, mainExchange, topicExchange);
+    }
+
+    // Declaring bindings never removes old ones, so a durable queue moving to patterns must drop its fanout binding
+    // or it would keep receiving every event through the forwarded fanout.
+    @Bean
+    @ConditionalOnExpression("'${spring.rabbitmq.bindings.events:}' != ''")
+    public ApplicationRunner legacyEventsBindingCleanup(AmqpAdmin amqpAdmin, @Qualifier("eventsQueue") Queue eventsQueue, @Qualifier("mainExchange") FanoutExchange mainExchange) {
+        return args -> amqpAdmin.removeBinding(BindingBuilder.bind(eventsQueue).to(mainExchange));
+    }
+
+    private Declarables bindings(Queue queue, List<String> patterns, FanoutExchange mainExchange, TopicExchange topicExchange) {
+        if (patterns.isEmpty()) {
+            return new Declarables(BindingBuilder.bind(queue).to(mainExchange));
+        }
+        return new Declarables(patterns.stream()
+                .map(pattern -> BindingBuilder.bind(queue).to(topicExchange).with(pattern.trim()))
+                .toList());
     }
 
     @Bean
@@ -0,0 +1,33 @@
+package com.bytebard.core.messaging.consumer;
+
+import com.bytebard.core.messaging.models.UserEventMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+@Service
+@ConditionalOnProperty(
+        name = "spring.rabbitmq.instance-listeners.enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+@DependsOn("instanceEventsQueue")
+public class InstanceEventsConsumer {
+    private static final Logger log = LoggerFactory.getLogger(InstanceEventsConsumer.class);
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InstanceEventsConsumer(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @RabbitListener(queues = "#{instanceEventsQueue.name}")
+    public void handleUserEvent(UserEventMessage message) {
+        log.debug("Dispatching user event to local listeners: {}", message);
+        eventPublisher.publishEvent(message);
+    }
+}
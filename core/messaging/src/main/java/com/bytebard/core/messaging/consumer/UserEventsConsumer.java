@@ -2,15 +2,20 @@ package com.bytebard.core.messaging.consumer;
 
 import com.bytebard.core.messaging.models.Events;
 import com.bytebard.core.messaging.models.UserEventMessage;
+import com.rabbitmq.client.Channel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.DependsOn;
-import org.springframework.core.env.Environment;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.List;
+
 @Service
 @ConditionalOnProperty(
         name = "spring.rabbitmq.listeners.enabled",
@@ -24,23 +29,49 @@ public class UserEventsConsumer {
     @Value("${spring.application.name}")
     private String appName;
 
-    @RabbitListener(queues = "${spring.application.name}")
-    public void handleUserEvent(UserEventMessage message) {
-        log.info("{} received user event: {}", appName, message);
+    @RabbitListener(
+            queues = "${spring.application.name}",
+            containerFactory = "batchListenerContainerFactory",
+            concurrency = "${spring.rabbitmq.listeners.events.concurrency:1-4}"
+    )
+    public void handleUserEvents(List<Message<UserEventMessage>> messages, Channel channel) throws IOException {
+        log.debug("{} received {} user events", appName, messages.size());
 
-        try {
-            if (message.eventType().equals(Events.USER_CREATED)) {
-                log.info("Processing user created: {}", message.userId());
-            } else {
-                log.warn("Unknown event type: {}", message.eventType());
+        // Failed messages are rejected on their own so they still reach the dead-letter exchange;
+        // everything processed successfully is acknowledged with a single multiple-ack.
+        long lastAcked = -1;
+        for (var message : messages) {
+            long deliveryTag = (Long) message.getHeaders().get(AmqpHeaders.DELIVERY_TAG);
+            try {
+                handleUserEvent(message.getPayload());
+                lastAcked = deliveryTag;
+            } catch (Exception e) {
+                log.error("Error processing user event: {}", message.getPayload(), e);
+                channel.basicNack(deliveryTag, false, false);
             }
-        } catch (Exception e) {
-            log.error("Error processing user event: {}", message, e);
-            throw e;
+        }
+        if (lastAcked >= 0) {
+            channel.basicAck(lastAcked, true);
+        }
+    }
+
+    private void handleUserEvent(UserEventMessage message) {
+        log.debug("{} received user event: {}", appName, message);
+
+        switch (message.eventType()) {
+            case Events.USER_CREATED -> log.debug("Processing user created: {}", message.userId());
+            // Known events this queue has no work for; the caches that react to them listen on their own queues.
+            case Events.USER_UPDATED, Events.USER_DELETED, Events.USERS_CREATED,
+                 Events.USER_TOKENS_REVOKED, Events.USER_DEPARTMENTS_CHANGED, Events.ROLES_CHANGED ->
+                    log.debug("Skipping {} event", message.eventType());
+            default -> log.warn("Unknown event type: {}", message.eventType());
         }
     }
 
-    @RabbitListener(queues = "${spring.rabbitmq.queues.dl-events}")
+    @RabbitListener(
+            queues = "${spring.rabbitmq.queues.dl-events}",
+            concurrency = "${spring.rabbitmq.listeners.dl-events.concurrency:1}"
+    )
     public void handleDeadLetterQueue(Object message) {
         log.error("Message received in Dead Letter Queue: {}", message);
     }
@@ -1,5 +1,18 @@
 package com.bytebard.core.messaging.models;
 
+import java.util.Locale;
+
 public class Events {
     public static final String USER_CREATED = "USER_CREATED";
+    public static final String USER_UPDATED = "USER_UPDATED";
+    public static final String USER_DELETED = "USER_DELETED";
+    public static final String USERS_CREATED = "USERS_CREATED";
+    public static final String USER_TOKENS_REVOKED = "USER_TOKENS_REVOKED";
+    public static final String USER_DEPARTMENTS_CHANGED = "USER_DEPARTMENTS_CHANGED";
+    public static final String ROLES_CHANGED = "ROLES_CHANGED";
+
+    // Topic exchange routing key, e.g. USER_DEPARTMENTS_CHANGED -> user.departments.changed
+    public static String routingKey(String eventType) {
+        return eventType.toLowerCase(Locale.ROOT).replace('_', '.');
+    }
 }
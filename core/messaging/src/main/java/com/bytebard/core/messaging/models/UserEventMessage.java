@@ -1,9 +1,15 @@
 package com.bytebard.core.messaging.models;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public record UserEventMessage(
         Long userId,
         String eventType,
-        LocalDateTime timestamp
-) {}
+        LocalDateTime timestamp,
+        List<Long> userIds
+) {
+    public UserEventMessage(Long userId, String eventType, LocalDateTime timestamp) {
+        this(userId, eventType, timestamp, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.bytebard.core.messaging.outbox;
+
+import com.bytebard.core.messaging.models.UserEventMessage;
+
+// Implemented by services that own a database; without one, UserEventsProducer publishes after commit instead.
+public interface UserEventOutbox {
+    void append(UserEventMessage message);
+}
@@ -0,0 +1,188 @@
+package com.bytebard.core.messaging.producer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Publishes with correlated confirms and hands callers a future instead of waiting on the broker.
+// At most maxInFlight messages are unconfirmed at once; a message keeps its slot across retries.
+// When the window is full, publishes are queued (up to maxQueued) and sent as slots free, so callers never block.
+@Component
+public class ConfirmingPublisher {
+    private static final Logger log = LoggerFactory.getLogger(ConfirmingPublisher.class);
+
+    private final RabbitTemplate rabbitTemplate;
+    private final Semaphore window;
+    private final ScheduledExecutorService retryScheduler;
+    private final Timer confirmLatency;
+    private final Counter retries;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final int maxQueued;
+    private final Queue<InFlight> queued = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedCount = new AtomicInteger();
+
+    public ConfirmingPublisher(
+            RabbitTemplate rabbitTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${spring.rabbitmq.publisher.max-in-flight:256}") int maxInFlight,
+            @Value("${spring.rabbitmq.publisher.max-attempts:5}") int maxAttempts,
+            @Value("${spring.rabbitmq.publisher.initial-backoff-ms:100}") long initialBackoffMs,
+            @Value("${spring.rabbitmq.publisher.max-backoff-ms:5000}") long maxBackoffMs,
+            @Value("${spring.rabbitmq.publisher.max-queued:10000}") int maxQueued
+    ) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.window = new Semaphore(maxInFlight);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.maxQueued = maxQueued;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("publisher-retry").daemon().factory());
+        this.confirmLatency = Timer.builder("rabbitmq.publish.confirm.latency")
+                .description("Time from publishing a message to the broker confirming it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.retries = Counter.builder("rabbitmq.publish.retries")
+                .description("Publishes retried after a nack, return or send failure")
+                .register(meterRegistry);
+        Gauge.builder("rabbitmq.publish.in.flight", window, w -> maxInFlight - w.availablePermits())
+                .description("Messages published and not yet confirmed")
+                .register(meterRegistry);
+        Gauge.builder("rabbitmq.publish.queued", queuedCount, AtomicInteger::get)
+                .description("Messages waiting for a free slot in the in-flight window")
+                .register(meterRegistry);
+
+        // Mandatory makes unroutable messages come back as returns, which are attached to their correlation data.
+        rabbitTemplate.setMandatory(true);
+        rabbitTemplate.setConfirmCallback((correlation, ack, cause) -> {
+            if (correlation instanceof InFlight inFlight) {
+                onConfirm(inFlight, ack, cause);
+            }
+        });
+    }
+
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Object message) {
+        var inFlight = new InFlight(exchange, routingKey, message, new CompletableFuture<>(), 1);
+        if (window.tryAcquire()) {
+            start(inFlight);
+            return inFlight.result;
+        }
+        if (queuedCount.incrementAndGet() > maxQueued) {
+            queuedCount.decrementAndGet();
+            inFlight.result.completeExceptionally(new AmqpException("Too many unconfirmed messages in flight"));
+            return inFlight.result;
+        }
+        queued.add(inFlight);
+        // A slot may have freed between the failed tryAcquire and the add above.
+        drain();
+        return inFlight.result;
+    }
+
+    private void start(InFlight inFlight) {
+        inFlight.result.whenComplete((ignored, error) -> {
+            window.release();
+            drain();
+        });
+        send(inFlight);
+    }
+
+    private void drain() {
+        while (!queued.isEmpty() && window.tryAcquire()) {
+            var next = queued.poll();
+            if (next == null) {
+                window.release();
+                return;
+            }
+            queuedCount.decrementAndGet();
+            start(next);
+        }
+    }
+
+    private void send(InFlight inFlight) {
+        inFlight.publishedAt = System.nanoTime();
+        try {
+            rabbitTemplate.convertAndSend(inFlight.exchange, inFlight.routingKey, inFlight.message, inFlight);
+        } catch (AmqpException e) {
+            retryOrFail(inFlight, e.getMessage());
+        }
+    }
+
+    private void onConfirm(InFlight inFlight, boolean ack, String cause) {
+        if (ack && inFlight.getReturned() == null) {
+            confirmLatency.record(System.nanoTime() - inFlight.publishedAt, TimeUnit.NANOSECONDS);
+            inFlight.result.complete(null);
+            return;
+        }
+        var reason = ack ? "returned: " + inFlight.getReturned().getReplyText() : "nacked: " + cause;
+        retryOrFail(inFlight, reason);
+    }
+
+    private void retryOrFail(InFlight inFlight, String reason) {
+        if (inFlight.attempt >= maxAttempts) {
+            inFlight.result.completeExceptionally(new AmqpException("Publish failed after " + inFlight.attempt + " attempts, " + reason));
+            return;
+        }
+        long delay = Math.min(maxBackoffMs, initialBackoffMs << Math.min(inFlight.attempt - 1, 20));
+        log.debug("Retrying publish to {} in {} ms, {}", inFlight.exchange, delay, reason);
+        retries.increment();
+        try {
+            retryScheduler.schedule(() -> send(inFlight.next()), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            inFlight.result.completeExceptionally(new AmqpException("Publisher is shutting down, " + reason));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        InFlight next;
+        while ((next = queued.poll()) != null) {
+            queuedCount.decrementAndGet();
+            next.result.completeExceptionally(new AmqpException("Publisher is shutting down"));
+        }
+    }
+
+    // A correlation can only be confirmed once, so every attempt gets a fresh one sharing the caller's future.
+    private static final class InFlight extends CorrelationData {
+        private final String exchange;
+        private final String routingKey;
+        private final Object message;
+        private final CompletableFuture<Void> result;
+        private final int attempt;
+        private volatile long publishedAt;
+
+        private InFlight(String exchange, String routingKey, Object message, CompletableFuture<Void> result, int attempt) {
+            super(UUID.randomUUID().toString());
+            this.exchange = exchange;
+            this.routingKey = routingKey;
+            this.message = message;
+            this.result = result;
+            this.attempt = attempt;
+        }
+
+        private InFlight next() {
+            return new InFlight(exchange, routingKey, message, result, attempt + 1);
+        }
+    }
+}
@@ -2,35 +2,95 @@ package com.bytebard.core.messaging.producer;
 
 import com.bytebard.core.messaging.models.Events;
 import com.bytebard.core.messaging.models.UserEventMessage;
+import com.bytebard.core.messaging.outbox.UserEventOutbox;
 import com.bytebard.utils.DateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
 
 @Service
 public class UserEventsProducer {
 
     private static final Logger log = LoggerFactory.getLogger(UserEventsProducer.class);
 
-    private final RabbitTemplate rabbitTemplate;
+    private final ConfirmingPublisher publisher;
+    private final UserEventOutbox outbox;
 
-    @Value("${spring.rabbitmq.exchanges.main}")
-    private String mainExchange;
+    @Value("${spring.rabbitmq.exchanges.topic:${spring.rabbitmq.exchanges.main}.topic}")
+    private String topicExchange;
 
-    public UserEventsProducer(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public UserEventsProducer(ConfirmingPublisher publisher, ObjectProvider<UserEventOutbox> outbox) {
+        this.publisher = publisher;
+        this.outbox = outbox.getIfAvailable();
     }
 
     public void sendUserCreatedEvent(Long userId) {
-        UserEventMessage message = new UserEventMessage(
+        send(userId, Events.USER_CREATED);
+    }
+
+    public void sendUserUpdatedEvent(Long userId) {
+        send(userId, Events.USER_UPDATED);
+    }
+
+    public void sendUserDeletedEvent(Long userId) {
+        send(userId, Events.USER_DELETED);
+    }
+
+    public void sendUserTokensRevokedEvent(Long userId) {
+        send(userId, Events.USER_TOKENS_REVOKED);
+    }
+
+    public void sendUsersCreatedEvent(List<Long> userIds) {
+        send(new UserEventMessage(null, Events.USERS_CREATED, DateUtils.now(), List.copyOf(userIds)));
+    }
+
+    public void sendUserDepartmentsChangedEvent(List<Long> userIds) {
+        send(new UserEventMessage(null, Events.USER_DEPARTMENTS_CHANGED, DateUtils.now(), List.copyOf(userIds)));
+    }
+
+    public void sendRolesChangedEvent() {
+        send(null, Events.ROLES_CHANGED);
+    }
+
+    private void send(Long userId, String eventType) {
+        send(new UserEventMessage(
                 userId,
-                Events.USER_CREATED,
+                eventType,
                 DateUtils.now()
-        );
+        ));
+    }
+
+    private void send(UserEventMessage message) {
+        if (outbox != null) {
+            outbox.append(message);
+            return;
+        }
+        // Consumers reload state when they see an event, so publishing before commit would let them read stale rows.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(message);
+                }
+            });
+            return;
+        }
+        publish(message);
+    }
 
-        rabbitTemplate.convertAndSend(mainExchange, "", message);
-        log.info("Sent user created event: {}", message);
+    private void publish(UserEventMessage message) {
+        publisher.publish(topicExchange, Events.routingKey(message.eventType()), message).whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.error("Failed to publish user event {}", message, error);
+            } else {
+                log.debug("Sent user event: {}", message);
+            }
+        });
     }
 }
@@ -0,0 +1,100 @@
+package com.bytebard.core.messaging.codec;
+
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserEventBinaryCodecTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2025, 10, 24, 9, 1, 2, 123_456_789);
+
+    private static UserEventMessage roundTrip(UserEventMessage message) {
+        return UserEventBinaryCodec.decode(UserEventBinaryCodec.encode(message));
+    }
+
+    @Test
+    void roundTrip_singleUserEvent() {
+        var message = new UserEventMessage(42L, Events.USER_CREATED, TIMESTAMP);
+        assertEquals(message, roundTrip(message));
+    }
+
+    @Test
+    void roundTrip_keepsNullAndEmptyEventTypesApart() {
+        assertNull(roundTrip(new UserEventMessage(1L, null, TIMESTAMP)).eventType());
+        assertEquals("", roundTrip(new UserEventMessage(1L, "", TIMESTAMP)).eventType());
+    }
+
+    @Test
+    void roundTrip_withoutTimestampOrUserId() {
+        var message = new UserEventMessage(null, Events.ROLES_CHANGED, null);
+        assertEquals(message, roundTrip(message));
+    }
+
+    @Test
+    void roundTrip_negativeAndExtremeIds() {
+        var message = new UserEventMessage(-7L, Events.USERS_CREATED, TIMESTAMP, List.of(5L, 3L, -7L, Long.MAX_VALUE, Long.MIN_VALUE, 0L));
+        assertEquals(message, roundTrip(message));
+    }
+
+    @Test
+    void roundTrip_keepsEmptyIdListDistinctFromMissing() {
+        assertEquals(List.of(), roundTrip(new UserEventMessage(null, Events.USERS_CREATED, TIMESTAMP, List.of())).userIds());
+        assertNull(roundTrip(new UserEventMessage(null, Events.USERS_CREATED, TIMESTAMP)).userIds());
+    }
+
+    @Test
+    void encode_isSmallerThanTheJsonFieldNames() {
+        var bytes = UserEventBinaryCodec.encode(new UserEventMessage(123_456L, Events.USER_UPDATED, TIMESTAMP));
+        assertEquals(UserEventBinaryCodec.VERSION, bytes[0]);
+        assertTrue(bytes.length < 32);
+    }
+
+    @Test
+    void decode_rejectsUnknownVersion() {
+        var bytes = UserEventBinaryCodec.encode(new UserEventMessage(1L, Events.USER_CREATED, TIMESTAMP));
+        bytes[0] = 2;
+        assertThrows(IllegalArgumentException.class, () -> UserEventBinaryCodec.decode(bytes));
+    }
+
+    @Test
+    void decode_rejectsUnknownFlags() {
+        var bytes = UserEventBinaryCodec.encode(new UserEventMessage(1L, Events.USER_CREATED, TIMESTAMP));
+        bytes[1] |= (byte) 0x80;
+        assertThrows(IllegalArgumentException.class, () -> UserEventBinaryCodec.decode(bytes));
+    }
+
+    @Test
+    void decode_rejectsTruncatedInput() {
+        var bytes = UserEventBinaryCodec.encode(new UserEventMessage(1L, Events.USER_CREATED, TIMESTAMP, List.of(1L, 2L)));
+        for (int length = 0; length < bytes.length; length++) {
+            var truncated = Arrays.copyOf(bytes, length);
+            assertThrows(IllegalArgumentException.class, () -> UserEventBinaryCodec.decode(truncated), "length " + length);
+        }
+    }
+
+    @Test
+    void decode_rejectsTrailingBytes() {
+        var bytes = UserEventBinaryCodec.encode(new UserEventMessage(1L, Events.USER_CREATED, TIMESTAMP));
+        assertThrows(IllegalArgumentException.class, () -> UserEventBinaryCodec.decode(Arrays.copyOf(bytes, bytes.length + 1)));
+    }
+
+    @Test
+    void decode_rejectsEventTypeLongerThanPayload() {
+        // version, no flags, then a ten-byte varint encoding the largest unsigned length
+        var bytes = new byte[]{1, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01};
+        assertThrows(IllegalArgumentException.class, () -> UserEventBinaryCodec.decode(bytes));
+        assertThrows(IllegalArgumentException.class, () -> UserEventBinaryCodec.decode(new byte[]{1, 0, 100, 'A'}));
+    }
+
+    @Test
+    void decode_rejectsIdCountLargerThanPayload() {
+        var bytes = new byte[]{1, 2, 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        assertThrows(IllegalArgumentException.class, () -> UserEventBinaryCodec.decode(bytes));
+    }
+}
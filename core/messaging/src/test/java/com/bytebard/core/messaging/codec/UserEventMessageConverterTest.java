@@ -0,0 +1,73 @@
+package com.bytebard.core.messaging.codec;
+
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserEventMessageConverterTest {
+
+    private static final UserEventMessage EVENT = new UserEventMessage(7L, Events.USER_UPDATED, LocalDateTime.of(2025, 10, 24, 9, 0), List.of(1L, 2L));
+
+    private static UserEventMessageConverter converter(UserEventMessageConverter.Encoding encoding) {
+        return new UserEventMessageConverter(new Jackson2JsonMessageConverter(), encoding);
+    }
+
+    private static Message received(Message sent) {
+        sent.getMessageProperties().setInferredArgumentType(UserEventMessage.class);
+        return sent;
+    }
+
+    @Test
+    void toMessage_binaryOutbound_setsBinaryContentType() {
+        var message = converter(UserEventMessageConverter.Encoding.BINARY).toMessage(EVENT, new MessageProperties());
+
+        assertEquals(UserEventMessageConverter.BINARY_CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertEquals(EVENT, UserEventBinaryCodec.decode(message.getBody()));
+    }
+
+    @Test
+    void toMessage_jsonOutbound_usesJson() {
+        var message = converter(UserEventMessageConverter.Encoding.JSON).toMessage(EVENT, new MessageProperties());
+
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, message.getMessageProperties().getContentType());
+    }
+
+    @Test
+    void toMessage_binaryOutbound_leavesOtherPayloadsOnJson() {
+        var message = converter(UserEventMessageConverter.Encoding.BINARY).toMessage(Map.of("key", "value"), new MessageProperties());
+
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, message.getMessageProperties().getContentType());
+    }
+
+    @Test
+    void fromMessage_decodesEitherEncodingRegardlessOfOutboundSetting() {
+        var jsonConsumer = converter(UserEventMessageConverter.Encoding.JSON);
+        var binaryConsumer = converter(UserEventMessageConverter.Encoding.BINARY);
+        var fromBinaryPublisher = received(binaryConsumer.toMessage(EVENT, new MessageProperties()));
+        var fromJsonPublisher = received(jsonConsumer.toMessage(EVENT, new MessageProperties()));
+
+        assertEquals(EVENT, jsonConsumer.fromMessage(fromBinaryPublisher));
+        assertEquals(EVENT, jsonConsumer.fromMessage(fromJsonPublisher));
+        assertEquals(EVENT, binaryConsumer.fromMessage(fromBinaryPublisher));
+        assertEquals(EVENT, binaryConsumer.fromMessage(fromJsonPublisher));
+    }
+
+    @Test
+    void fromMessage_rejectsCorruptBinaryPayload() {
+        var properties = new MessageProperties();
+        properties.setContentType(UserEventMessageConverter.BINARY_CONTENT_TYPE);
+
+        assertThrows(MessageConversionException.class,
+                () -> converter(UserEventMessageConverter.Encoding.BINARY).fromMessage(new Message(new byte[]{9, 0}, properties)));
+    }
+}
@@ -0,0 +1,77 @@
+package com.bytebard.core.messaging.consumer;
+
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import com.bytebard.utils.DateUtils;
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class UserEventsConsumerTest {
+
+    private Channel channel;
+    private UserEventsConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        channel = mock(Channel.class);
+        consumer = new UserEventsConsumer();
+    }
+
+    private static Message<UserEventMessage> event(long deliveryTag, String eventType) {
+        return MessageBuilder.withPayload(new UserEventMessage(deliveryTag, eventType, DateUtils.now()))
+                .setHeader(AmqpHeaders.DELIVERY_TAG, deliveryTag)
+                .build();
+    }
+
+    // A missing event type makes the handler throw, standing in for any processing failure.
+    private static Message<UserEventMessage> failing(long deliveryTag) {
+        return event(deliveryTag, null);
+    }
+
+    @Test
+    void handleUserEvents_allSucceed_acksBatchOnce() throws IOException {
+        consumer.handleUserEvents(List.of(event(1, Events.USER_CREATED), event(2, Events.USER_UPDATED), event(3, Events.USER_CREATED)), channel);
+
+        verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void handleUserEvents_failureInMiddle_nacksItAndAcksTheRest() throws IOException {
+        consumer.handleUserEvents(List.of(event(1, Events.USER_CREATED), failing(2), event(3, Events.USER_CREATED)), channel);
+
+        var inOrder = inOrder(channel);
+        inOrder.verify(channel).basicNack(2, false, false);
+        inOrder.verify(channel).basicAck(3, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void handleUserEvents_failureOnLastMessage_acksUpToLastSuccess() throws IOException {
+        consumer.handleUserEvents(List.of(event(1, Events.USER_CREATED), event(2, Events.USER_CREATED), failing(3)), channel);
+
+        var inOrder = inOrder(channel);
+        inOrder.verify(channel).basicNack(3, false, false);
+        inOrder.verify(channel).basicAck(2, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void handleUserEvents_allFail_nacksEachAndNeverAcks() throws IOException {
+        consumer.handleUserEvents(List.of(failing(1), failing(2)), channel);
+
+        verify(channel).basicNack(1, false, false);
+        verify(channel).basicNack(2, false, false);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        verifyNoMoreInteractions(channel);
+    }
+}
@@ -0,0 +1,198 @@
+package com.bytebard.core.messaging.producer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ConfirmingPublisherTest {
+
+    private RabbitTemplate rabbitTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ConfirmingPublisher publisher;
+    private RabbitTemplate.ConfirmCallback confirmCallback;
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.shutdown();
+        }
+    }
+
+    private void createPublisher(int maxInFlight, int maxAttempts, int maxQueued) {
+        publisher = new ConfirmingPublisher(rabbitTemplate, meterRegistry, maxInFlight, maxAttempts, 1, 5, maxQueued);
+        var captor = ArgumentCaptor.forClass(RabbitTemplate.ConfirmCallback.class);
+        verify(rabbitTemplate).setConfirmCallback(captor.capture());
+        verify(rabbitTemplate).setMandatory(true);
+        confirmCallback = captor.getValue();
+    }
+
+    // Confirms each publish as soon as it is sent, in the way the broker would on the template's callback.
+    private void onSend(Consumer<CorrelationData> broker) {
+        doAnswer(invocation -> {
+            broker.accept(invocation.getArgument(3));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("rabbitmq.publish.in.flight").gauge().value();
+    }
+
+    @Test
+    void publish_completesFuture_whenBrokerAcks() throws Exception {
+        createPublisher(4, 3, 10);
+        onSend(correlation -> confirmCallback.confirm(correlation, true, null));
+
+        publisher.publish("events", "user.created", "payload").get(1, TimeUnit.SECONDS);
+
+        verify(rabbitTemplate, times(1)).convertAndSend(eq("events"), eq("user.created"), eq("payload"), any(CorrelationData.class));
+        assertEquals(1, meterRegistry.get("rabbitmq.publish.confirm.latency").timer().count());
+    }
+
+    @Test
+    void publish_retriesNacksUntilMaxAttempts_thenFailsFuture() {
+        createPublisher(4, 3, 10);
+        onSend(correlation -> confirmCallback.confirm(correlation, false, "nacked"));
+
+        var result = publisher.publish("events", "user.created", "payload");
+
+        var error = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(AmqpException.class, error.getCause());
+        verify(rabbitTemplate, times(3)).convertAndSend(eq("events"), eq("user.created"), eq("payload"), any(CorrelationData.class));
+        assertEquals(2.0, meterRegistry.get("rabbitmq.publish.retries").counter().count());
+    }
+
+    @Test
+    void publish_retriesReturnedMessage_evenThoughItWasAcked() throws Exception {
+        createPublisher(4, 3, 10);
+        var attempts = new AtomicInteger();
+        onSend(correlation -> {
+            if (attempts.incrementAndGet() == 1) {
+                correlation.setReturned(new ReturnedMessage(new Message(new byte[0], new MessageProperties()), 312, "NO_ROUTE", "events", "user.created"));
+            }
+            confirmCallback.confirm(correlation, true, null);
+        });
+
+        publisher.publish("events", "user.created", "payload").get(1, TimeUnit.SECONDS);
+
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void publish_usesFreshCorrelationPerAttempt() {
+        createPublisher(4, 2, 10);
+        onSend(correlation -> confirmCallback.confirm(correlation, false, "nacked"));
+
+        assertThrows(ExecutionException.class, () -> publisher.publish("events", "user.created", "payload").get(1, TimeUnit.SECONDS));
+
+        var captor = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate, times(2)).convertAndSend(anyString(), anyString(), any(Object.class), captor.capture());
+        assertNotEquals(captor.getAllValues().get(0).getId(), captor.getAllValues().get(1).getId());
+    }
+
+    @Test
+    void publish_releasesPermitOnce_onSuccess() throws Exception {
+        createPublisher(1, 3, 10);
+        onSend(correlation -> {
+            confirmCallback.confirm(correlation, true, null);
+            // A duplicate confirm must not hand the slot back twice.
+            confirmCallback.confirm(correlation, true, null);
+        });
+
+        publisher.publish("events", "user.created", "first").get(1, TimeUnit.SECONDS);
+
+        assertEquals(0.0, inFlight());
+        publisher.publish("events", "user.created", "second").get(1, TimeUnit.SECONDS);
+        assertEquals(0.0, inFlight());
+    }
+
+    @Test
+    void publish_releasesPermitOnce_onFailure() throws Exception {
+        createPublisher(1, 1, 10);
+        onSend(correlation -> confirmCallback.confirm(correlation, false, "nacked"));
+
+        assertThrows(ExecutionException.class, () -> publisher.publish("events", "user.created", "first").get(1, TimeUnit.SECONDS));
+
+        assertEquals(0.0, inFlight());
+        onSend(correlation -> confirmCallback.confirm(correlation, true, null));
+        publisher.publish("events", "user.created", "second").get(1, TimeUnit.SECONDS);
+        assertEquals(0.0, inFlight());
+    }
+
+    @Test
+    void publish_queuesWithoutBlocking_whenWindowIsFull_andSendsOnceASlotFrees() throws Exception {
+        createPublisher(1, 3, 10);
+        var sent = new ArrayList<CorrelationData>();
+        onSend(sent::add);
+        publisher.publish("events", "user.created", "first");
+
+        var second = publisher.publish("events", "user.created", "second");
+
+        assertFalse(second.isDone());
+        assertEquals(1, sent.size());
+        assertEquals(1.0, meterRegistry.get("rabbitmq.publish.queued").gauge().value());
+
+        confirmCallback.confirm(sent.get(0), true, null);
+
+        assertEquals(2, sent.size());
+        confirmCallback.confirm(sent.get(1), true, null);
+        second.get(1, TimeUnit.SECONDS);
+        assertEquals(0.0, inFlight());
+        assertEquals(0.0, meterRegistry.get("rabbitmq.publish.queued").gauge().value());
+    }
+
+    @Test
+    void publish_failsFutureImmediately_whenQueueIsFull() {
+        createPublisher(1, 3, 0);
+        // The first message is never confirmed, so it keeps the only slot.
+        publisher.publish("events", "user.created", "first");
+
+        var result = publisher.publish("events", "user.created", "second");
+
+        assertTrue(result.isCompletedExceptionally());
+        var error = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(AmqpException.class, error.getCause());
+        assertEquals(1.0, inFlight());
+        verify(rabbitTemplate, times(1)).convertAndSend(anyString(), anyString(), any(Object.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void publish_retriesSendFailures() throws Exception {
+        createPublisher(4, 3, 10);
+        var attempts = new AtomicInteger();
+        onSend(correlation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new AmqpException("connection reset");
+            }
+            confirmCallback.confirm(correlation, true, null);
+        });
+
+        publisher.publish("events", "user.created", "payload").get(1, TimeUnit.SECONDS);
+
+        assertEquals(2, attempts.get());
+    }
+}
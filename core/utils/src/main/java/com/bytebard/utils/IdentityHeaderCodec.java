@@ -0,0 +1,116 @@
+package com.bytebard.utils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+public class IdentityHeaderCodec {
+
+    public static final String HEADER = "X-Bytebard-Identity";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final long maxAgeMillis;
+    private final ThreadLocal<Mac> macs;
+
+    public IdentityHeaderCodec(String secret, Duration maxAge) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException("Identity header secret must not be blank");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.maxAgeMillis = maxAge.toMillis();
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String encode(Identity identity) {
+        var payload = String.join("|",
+                String.valueOf(identity.userId()),
+                identity.status() == null ? "" : identity.status(),
+                String.join(",", identity.roles()),
+                String.valueOf(identity.tokenEpoch()),
+                String.valueOf(identity.tokenIssuedAtMillis()),
+                String.valueOf(identity.issuedAtMillis()),
+                identity.tokenHash() == null ? "" : identity.tokenHash(),
+                String.valueOf(identity.tokenExpiresAtMillis())
+        ).getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    public Identity decode(String header) {
+        if (header == null) {
+            return null;
+        }
+        int dot = header.indexOf('.');
+        if (dot <= 0 || dot != header.lastIndexOf('.')) {
+            return null;
+        }
+        try {
+            var payload = DECODER.decode(header.substring(0, dot));
+            var signature = DECODER.decode(header.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return null;
+            }
+            var parts = new String(payload, StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 8) {
+                return null;
+            }
+            var issuedAt = Long.parseLong(parts[5]);
+            if (Math.abs(System.currentTimeMillis() - issuedAt) > maxAgeMillis) {
+                return null;
+            }
+            var roles = parts[2].isEmpty() ? List.<String>of() : Arrays.asList(parts[2].split(","));
+            return new Identity(Long.parseLong(parts[0]), parts[1].isEmpty() ? null : parts[1], roles, Integer.parseInt(parts[3]), Long.parseLong(parts[4]), issuedAt, parts[6], Long.parseLong(parts[7]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Binds a header to the bearer token it was issued for; only the JWT signature segment is hashed.
+    public static String tokenHash(String token) {
+        var signature = token.substring(token.lastIndexOf('.') + 1);
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(signature.getBytes(StandardCharsets.UTF_8));
+            return ENCODER.encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise SHA-256", e);
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        var mac = macs.get();
+        mac.reset();
+        return mac.doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            var mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to initialise " + ALGORITHM, e);
+        }
+    }
+
+    public record Identity(long userId, String status, List<String> roles, int tokenEpoch, long tokenIssuedAtMillis, long issuedAtMillis, String tokenHash, long tokenExpiresAtMillis) {
+        // A header is only worth trusting together with the unexpired token it was minted for.
+        public boolean isBoundTo(String token) {
+            if (tokenHash == null || tokenHash.isEmpty() || tokenExpiresAtMillis <= System.currentTimeMillis()) {
+                return false;
+            }
+            return MessageDigest.isEqual(
+                    tokenHash.getBytes(StandardCharsets.UTF_8),
+                    IdentityHeaderCodec.tokenHash(token).getBytes(StandardCharsets.UTF_8)
+            );
+        }
+    }
+}
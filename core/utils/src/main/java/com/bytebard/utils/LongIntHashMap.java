@@ -0,0 +1,140 @@
+package com.bytebard.utils;
+
+import java.util.concurrent.locks.StampedLock;
+
+// Open-addressing map from positive long keys to int values. Reads are lock-free unless they race a writer.
+public class LongIntHashMap {
+    private static final long EMPTY = 0L;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Table table;
+    private int size;
+
+    public LongIntHashMap(int expectedSize) {
+        this.table = new Table(capacityFor(Math.max(expectedSize, 16)));
+    }
+
+    public int get(long key, int defaultValue) {
+        checkKey(key);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            var value = table.get(key, defaultValue);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return table.get(key, defaultValue);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(long key, int value) {
+        checkKey(key);
+        long stamp = lock.writeLock();
+        try {
+            if (table.put(key, value, false)) {
+                grow();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void putMax(long key, int value) {
+        checkKey(key);
+        long stamp = lock.writeLock();
+        try {
+            if (table.put(key, value, true)) {
+                grow();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void grow() {
+        size++;
+        if (size * 2 > table.keys.length) {
+            var current = table;
+            var resized = new Table(current.keys.length * 2);
+            for (int i = 0; i < current.keys.length; i++) {
+                if (current.keys[i] != EMPTY) {
+                    resized.put(current.keys[i], current.values[i], false);
+                }
+            }
+            table = resized;
+        }
+    }
+
+    private static void checkKey(long key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive");
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(expectedSize * 2 - 1) << 1;
+        return Math.max(capacity, 32);
+    }
+
+    private static final class Table {
+        private final long[] keys;
+        private final int[] values;
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private int get(long key, int defaultValue) {
+            int i = slot(key);
+            while (true) {
+                long k = keys[i];
+                if (k == key) {
+                    return values[i];
+                }
+                if (k == EMPTY) {
+                    return defaultValue;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        // Returns true when a new key was inserted.
+        private boolean put(long key, int value, boolean keepMax) {
+            int i = slot(key);
+            while (true) {
+                long k = keys[i];
+                if (k == key) {
+                    values[i] = keepMax ? Math.max(values[i], value) : value;
+                    return false;
+                }
+                if (k == EMPTY) {
+                    values[i] = value;
+                    keys[i] = key;
+                    return true;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
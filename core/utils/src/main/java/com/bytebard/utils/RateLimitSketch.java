@@ -0,0 +1,84 @@
+package com.bytebard.utils;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Each cell holds a GCRA theoretical arrival time, so colliding keys can only make a bucket look fuller, never emptier.
+public class RateLimitSketch {
+    private final AtomicLongArray cells;
+    private final int width;
+    private final int depth;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long seed;
+    private final long origin = System.nanoTime();
+
+    public RateLimitSketch(int width, int depth, int capacity, int refillPerMinute) {
+        if (width <= 0 || depth <= 0 || capacity <= 0 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("Sketch dimensions and bucket settings must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.cells = new AtomicLongArray(width * depth);
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        this.burstNanos = intervalNanos * (capacity - 1);
+        this.seed = new SecureRandom().nextLong();
+    }
+
+    public boolean tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime() - origin);
+    }
+
+    boolean tryAcquire(String key, long nowNanos) {
+        var hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+
+        long tat = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            tat = Math.min(tat, cells.get(index(row, h1, h2)));
+        }
+        long start = Math.max(tat, nowNanos);
+        if (start - nowNanos > burstNanos) {
+            return false;
+        }
+
+        long next = start + intervalNanos;
+        for (int row = 0; row < depth; row++) {
+            int i = index(row, h1, h2);
+            long current;
+            do {
+                current = cells.get(i);
+            } while (current < next && !cells.compareAndSet(i, current, next));
+        }
+        return true;
+    }
+
+    public double occupancy() {
+        var now = System.nanoTime() - origin;
+        int busy = 0;
+        for (int i = 0; i < cells.length(); i++) {
+            if (cells.get(i) > now) {
+                busy++;
+            }
+        }
+        return (double) busy / cells.length();
+    }
+
+    private int index(int row, int h1, int h2) {
+        return row * width + Math.floorMod(h1 + row * h2, width);
+    }
+
+    private long hash(String key) {
+        long h = seed;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,11 @@
+package com.bytebard.utils;
+
+// Claim names carried in access tokens, kept here so the gateway can read them without depending on core:api.
+public final class TokenClaims {
+    public static final String ROLES = "rl";
+    public static final String STATUS = "st";
+    public static final String EPOCH = "ep";
+
+    private TokenClaims() {
+    }
+}
@@ -16,6 +16,7 @@ dependencies {
     implementation(project(":core:api"))
     implementation(project(":core:messaging"))
     implementation(libs.spring.cloud.starter.config)
+    implementation(libs.roaringbitmap)
     testImplementation(libs.spring.boot.starter.test)
     testImplementation(libs.spring.security.test)
     implementation(libs.spring.boot.starter.actuator)
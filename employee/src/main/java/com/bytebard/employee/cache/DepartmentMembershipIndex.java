@@ -0,0 +1,167 @@
+package com.bytebard.employee.cache;
+
+import com.bytebard.core.api.repositories.DepartmentRepository;
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Department -> member bitmap and user -> department ids. Published bitmaps are never mutated, so reads take no lock.
+// Updated from events, so it can trail other instances: callers use it to pick candidates and confirm them in the database.
+@Component
+public class DepartmentMembershipIndex {
+    private static final long[] NONE = new long[0];
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    private final DepartmentRepository departmentRepository;
+    private final boolean enabled;
+    private final Map<Long, RoaringBitmap> members = new ConcurrentHashMap<>();
+    private final Map<Long, long[]> departmentsByUser = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public DepartmentMembershipIndex(
+            DepartmentRepository departmentRepository,
+            MeterRegistry meterRegistry,
+            @Value("${spring.employee.membership-index.enabled:true}") boolean enabled
+    ) {
+        this.departmentRepository = departmentRepository;
+        this.enabled = enabled;
+        Gauge.builder("employee.membership.users", departmentsByUser, Map::size).register(meterRegistry);
+        Gauge.builder("employee.membership.departments", members, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        if (!enabled) {
+            return;
+        }
+        var grouped = new HashMap<Long, List<Long>>();
+        for (var row : departmentRepository.findAllMemberships()) {
+            var userId = ((Number) row[0]).longValue();
+            if (!fits(userId)) {
+                log.warn("User id {} exceeds the bitmap range, membership checks stay on the database", userId);
+                return;
+            }
+            grouped.computeIfAbsent(userId, id -> new ArrayList<>()).add(((Number) row[1]).longValue());
+        }
+        var bitmaps = new HashMap<Long, RoaringBitmap>();
+        grouped.forEach((userId, departmentIds) -> {
+            departmentsByUser.put(userId, toSortedArray(departmentIds));
+            departmentIds.forEach(departmentId -> bitmaps.computeIfAbsent(departmentId, id -> new RoaringBitmap()).add(userId.intValue()));
+        });
+        bitmaps.values().forEach(RoaringBitmap::runOptimize);
+        members.putAll(bitmaps);
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public RoaringBitmap visibleTo(long managerId) {
+        var departments = departmentsByUser.getOrDefault(managerId, NONE);
+        if (departments.length == 1) {
+            return members.getOrDefault(departments[0], new RoaringBitmap());
+        }
+        var visible = new RoaringBitmap();
+        for (var departmentId : departments) {
+            var bitmap = members.get(departmentId);
+            if (bitmap != null) {
+                visible.or(bitmap);
+            }
+        }
+        return visible;
+    }
+
+    public synchronized void replaceUser(long userId, Collection<Long> departmentIds) {
+        if (!ready) {
+            return;
+        }
+        if (!fits(userId)) {
+            ready = false;
+            return;
+        }
+        var previous = departmentsByUser.getOrDefault(userId, NONE);
+        var current = toSortedArray(departmentIds);
+        for (var departmentId : previous) {
+            if (Arrays.binarySearch(current, departmentId) < 0) {
+                update(departmentId, userId, false);
+            }
+        }
+        for (var departmentId : current) {
+            if (Arrays.binarySearch(previous, departmentId) < 0) {
+                update(departmentId, userId, true);
+            }
+        }
+        if (current.length == 0) {
+            departmentsByUser.remove(userId);
+        } else {
+            departmentsByUser.put(userId, current);
+        }
+    }
+
+    @EventListener
+    public void onUserEvent(UserEventMessage message) {
+        if (!ready || message.eventType() == null) {
+            return;
+        }
+        switch (message.eventType()) {
+            case Events.USER_CREATED, Events.USER_UPDATED -> reload(message.userId());
+            case Events.USERS_CREATED, Events.USER_DEPARTMENTS_CHANGED -> {
+                if (message.userIds() != null) {
+                    message.userIds().forEach(this::reload);
+                }
+            }
+            case Events.USER_DELETED -> {
+                if (message.userId() != null) {
+                    replaceUser(message.userId(), List.of());
+                }
+            }
+            default -> {}
+        }
+    }
+
+    private void reload(Long userId) {
+        if (userId != null) {
+            replaceUser(userId, departmentRepository.findDepartmentIdsByUserId(userId));
+        }
+    }
+
+    // Copy-on-write so readers holding the old bitmap never observe a partial update.
+    private void update(long departmentId, long userId, boolean add) {
+        var copy = members.getOrDefault(departmentId, new RoaringBitmap()).clone();
+        if (add) {
+            copy.add((int) userId);
+        } else {
+            copy.remove((int) userId);
+        }
+        if (copy.isEmpty()) {
+            members.remove(departmentId);
+        } else {
+            members.put(departmentId, copy);
+        }
+    }
+
+    private static boolean fits(long userId) {
+        return userId >= 0 && userId <= Integer.MAX_VALUE;
+    }
+
+    private static long[] toSortedArray(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).distinct().sorted().toArray();
+    }
+}
@@ -48,12 +48,18 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, String.format("%s", Routes.USERS))
                         .hasAnyRole(Role.ADMIN, Role.MANAGER)
 
+                        .requestMatchers(HttpMethod.GET, String.format("%s%s", Routes.USERS, Routes.EXPORT))
+                        .hasAnyRole(Role.ADMIN, Role.MANAGER)
+
                         .requestMatchers(HttpMethod.GET, String.format("%s/**", Routes.USERS))
                         .hasAnyRole(Role.ADMIN, Role.MANAGER, Role.EMPLOYEE)
 
                         .requestMatchers(HttpMethod.POST, String.format("%s", Routes.USERS))
                         .hasRole(Role.ADMIN)
 
+                        .requestMatchers(HttpMethod.POST, String.format("%s%s", Routes.USERS, Routes.BATCH))
+                        .hasRole(Role.ADMIN)
+
                         .requestMatchers(HttpMethod.PUT, String.format("%s/**", Routes.USERS))
                         .hasRole(Role.ADMIN)
 
@@ -1,6 +1,7 @@
 package com.bytebard.employee.controllers;
 
 import com.bytebard.core.api.constants.Routes;
+import com.bytebard.core.api.types.CursorPage;
 import com.bytebard.core.api.types.MvcApiReponse;
 import com.bytebard.employee.services.DepartmentService;
 import com.bytebard.employee.types.MutateDepartmentRequest;
@@ -45,8 +46,18 @@ public class DepartmentController {
     }
 
     @GetMapping
-    public ResponseEntity<MvcApiReponse<List<DepartmentDTO>>> getAll(@RequestParam("page") Integer page, @RequestParam("size") Integer size) {
+    public ResponseEntity<MvcApiReponse<List<DepartmentDTO>>> getAll(@RequestParam("page") Integer page, @RequestParam("size") Integer size, @RequestParam(value = "total", required = false) Boolean total) {
         var departments = departmentService.getAll(page, size);
+        var response = ResponseEntity.ok().header(Routes.HAS_NEXT_HEADER, String.valueOf(departments.hasNext()));
+        if (Boolean.TRUE.equals(total)) {
+            response.header(Routes.TOTAL_COUNT_HEADER, String.valueOf(departmentService.estimateTotal()));
+        }
+        return response.body(new MvcApiReponse<>(departments.getContent(), HttpStatus.OK, true));
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<MvcApiReponse<CursorPage<DepartmentDTO>>> getAfter(@RequestParam("cursor") String cursor, @RequestParam(value = "size", required = false) Integer size) {
+        var departments = departmentService.getAfter(cursor, size);
         return ResponseEntity.ok(new MvcApiReponse<>(departments, HttpStatus.OK, true));
     }
 }
@@ -1,15 +1,25 @@
 package com.bytebard.employee.controllers;
 
 import com.bytebard.core.api.constants.Routes;
+import com.bytebard.core.api.types.CursorPage;
 import com.bytebard.core.api.types.MvcApiReponse;
 import com.bytebard.core.api.types.UserDTO;
+import com.bytebard.employee.export.UserExportFormat;
+import com.bytebard.employee.export.UserExportWriter;
 import com.bytebard.employee.services.EmployeeService;
+import com.bytebard.employee.types.BatchCreateUsersRequest;
+import com.bytebard.employee.types.BatchUserResult;
 import com.bytebard.employee.types.MutateUserRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.ws.rs.QueryParam;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RequestMapping(Routes.USERS)
@@ -17,9 +27,11 @@ import java.util.List;
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, ObjectMapper objectMapper) {
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -28,6 +40,12 @@ public class EmployeeController {
         return ResponseEntity.ok(new MvcApiReponse<>(user, HttpStatus.CREATED, true));
     }
 
+    @PostMapping(Routes.BATCH)
+    public ResponseEntity<MvcApiReponse<List<BatchUserResult>>> createBatch(@RequestBody BatchCreateUsersRequest request) {
+        var results = employeeService.createBatch(request);
+        return ResponseEntity.ok(new MvcApiReponse<>(results, HttpStatus.OK, true));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<MvcApiReponse<UserDTO>> update(@PathVariable("id") Long id, @RequestBody MutateUserRequest request) {
         var user = employeeService.update(id, request);
@@ -47,8 +65,29 @@ public class EmployeeController {
     }
 
     @GetMapping
-    public ResponseEntity<MvcApiReponse<List<UserDTO>>> getAll(@QueryParam("page") Integer page, @QueryParam("size") Integer size) {
+    public ResponseEntity<MvcApiReponse<List<UserDTO>>> getAll(@QueryParam("page") Integer page, @QueryParam("size") Integer size, @QueryParam("total") Boolean total) {
         var users = employeeService.getAllUsers(page, size);
+        var response = ResponseEntity.ok().header(Routes.HAS_NEXT_HEADER, String.valueOf(users.hasNext()));
+        if (Boolean.TRUE.equals(total)) {
+            response.header(Routes.TOTAL_COUNT_HEADER, String.valueOf(employeeService.estimateUserTotal()));
+        }
+        return response.body(new MvcApiReponse<>(users.getContent(), HttpStatus.OK, true));
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<MvcApiReponse<CursorPage<UserDTO>>> getAfter(@RequestParam("cursor") String cursor, @RequestParam(value = "size", required = false) Integer size) {
+        var users = employeeService.getUsersAfter(cursor, size);
         return ResponseEntity.ok(new MvcApiReponse<>(users, HttpStatus.OK, true));
     }
+
+    @GetMapping(Routes.EXPORT)
+    public void export(@RequestParam(value = "format", required = false) String format, HttpServletResponse response) throws IOException {
+        var exportFormat = UserExportFormat.fromParam(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + exportFormat.getExtension() + "\"");
+        try (var writer = new UserExportWriter(exportFormat, response.getOutputStream(), objectMapper)) {
+            employeeService.exportUsers(writer::write);
+        }
+    }
 }
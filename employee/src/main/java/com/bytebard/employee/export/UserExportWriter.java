@@ -0,0 +1,81 @@
+package com.bytebard.employee.export;
+
+import com.bytebard.core.api.types.UserDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+// Writes one user per line straight to the response; only the write buffer is held in memory.
+public class UserExportWriter implements Closeable {
+    private static final String CSV_HEADER = "id,firstName,lastName,email,status,createdAt";
+
+    private final UserExportFormat format;
+    private final BufferedWriter writer;
+    private final ObjectWriter json;
+
+    public UserExportWriter(UserExportFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.json = objectMapper.writerFor(UserDTO.class);
+        if (format == UserExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.newLine();
+        }
+    }
+
+    public void write(UserDTO user) {
+        try {
+            if (format == UserExportFormat.CSV) {
+                writeCsv(user);
+            } else {
+                writer.write(json.writeValueAsString(user));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsv(UserDTO user) throws IOException {
+        writer.write(String.valueOf(user.getId()));
+        writer.write(',');
+        writeCsvField(user.getFirstName());
+        writer.write(',');
+        writeCsvField(user.getLastName());
+        writer.write(',');
+        writeCsvField(user.getEmail());
+        writer.write(',');
+        writeCsvField(user.getStatus());
+        writer.write(',');
+        writeCsvField(user.getCreatedAt() == null ? null : user.getCreatedAt().toString());
+    }
+
+    private void writeCsvField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        // Spreadsheets evaluate cells starting with these as formulas, so they are forced to text.
+        if (!value.isEmpty() && "=+-@\t".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
@@ -1,27 +1,34 @@
 package com.bytebard.employee.services;
 
+import com.bytebard.core.api.cache.ListTotalsCache;
 import com.bytebard.core.api.models.Department;
 import com.bytebard.core.api.repositories.DepartmentRepository;
+import com.bytebard.core.api.types.CursorPage;
+import com.bytebard.core.messaging.producer.UserEventsProducer;
 import com.bytebard.employee.types.MutateDepartmentRequest;
 import com.bytebard.employee.types.DepartmentDTO;
 import jakarta.transaction.Transactional;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.HttpClientErrorException;
 
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class DepartmentService {
     private final DepartmentRepository departmentRepository;
+    private final ListTotalsCache listTotals;
+    private final UserEventsProducer producer;
 
-    public DepartmentService(DepartmentRepository departmentRepository) {
+    public DepartmentService(DepartmentRepository departmentRepository, ListTotalsCache listTotals, UserEventsProducer producer) {
         this.departmentRepository = departmentRepository;
+        this.listTotals = listTotals;
+        this.producer = producer;
     }
 
     public DepartmentDTO get(Long id) {
@@ -29,16 +36,25 @@ public class DepartmentService {
         return new DepartmentDTO(department.getId(), department.getName());
     }
 
-    public List<DepartmentDTO> getAll(Integer page, Integer size) {
+    public Slice<DepartmentDTO> getAll(Integer page, Integer size) {
         int pageNumber = (page != null && page >= 0) ? page : 0;
         int pageSize = (size != null && size > 0) ? size : 10;
 
-        Pageable pageable = PageRequest.of(pageNumber, pageSize);
-        Page<Department> departmentsPage = departmentRepository.findAll(pageable);
+        // Offset slices need a stable order or rows can repeat or go missing between pages.
+        Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.by("id"));
+        Slice<Department> departments = departmentRepository.findSliceBy(pageable);
 
-        return departmentsPage.getContent().stream()
-                .map(department -> new DepartmentDTO(department.getId(), department.getName()))
-                .collect(Collectors.toList());
+        return departments.map(department -> new DepartmentDTO(department.getId(), department.getName()));
+    }
+
+    public long estimateTotal() {
+        return listTotals.departments();
+    }
+
+    public CursorPage<DepartmentDTO> getAfter(String cursor, Integer size) {
+        int pageSize = CursorPage.size(size);
+        var departments = departmentRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.decode(cursor), Limit.of(pageSize + 1));
+        return CursorPage.of(departments, pageSize, Department::getId, department -> new DepartmentDTO(department.getId(), department.getName()));
     }
 
     public DepartmentDTO create(MutateDepartmentRequest request) {
@@ -78,7 +94,11 @@ public class DepartmentService {
         if (!exists) {
             throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "Department not found");
         }
+        var memberIds = departmentRepository.findUserIdsByDepartmentId(id);
         departmentRepository.deleteDepartmentUsers(id);
         departmentRepository.deleteById(id);
+        if (!memberIds.isEmpty()) {
+            producer.sendUserDepartmentsChangedEvent(memberIds);
+        }
     }
 }
@@ -1,31 +1,45 @@
 package com.bytebard.employee.services;
 
+import com.bytebard.core.api.cache.ListTotalsCache;
 import com.bytebard.core.api.context.AuthContext;
 import com.bytebard.core.api.mappers.UserMapper;
-import com.bytebard.core.api.models.Role;
 import com.bytebard.core.api.models.Status;
 import com.bytebard.core.api.models.User;
 import com.bytebard.core.api.repositories.DepartmentRepository;
-import com.bytebard.core.api.repositories.RoleRepository;
+import com.bytebard.core.api.repositories.UserBatchRepository;
 import com.bytebard.core.api.repositories.UserRepository;
+import com.bytebard.core.api.repositories.UserUpdateRepository;
+import com.bytebard.core.api.security.RoleRegistry;
+import com.bytebard.core.api.types.CursorPage;
 import com.bytebard.core.api.types.UserDTO;
 import com.bytebard.core.api.validators.FieldValidator;
+import com.bytebard.employee.types.BatchCreateUsersRequest;
+import com.bytebard.employee.types.BatchUserResult;
 import com.bytebard.employee.types.MutateUserRequest;
 import com.bytebard.core.messaging.producer.UserEventsProducer;
+import com.bytebard.employee.cache.DepartmentMembershipIndex;
 import com.bytebard.utils.DateUtils;
 import jakarta.transaction.Transactional;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.HttpClientErrorException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class EmployeeService {
@@ -33,19 +47,30 @@ public class EmployeeService {
     @Value("${spring.auth.default-password}")
     private String defaultPassword;
 
+    @Value("${spring.employee.batch.max-size:5000}")
+    private int maxBatchSize;
+
     private final UserRepository userRepository;
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
     private final PasswordEncoder passwordEncoder;
     private final AuthContext authContext;
     private final UserEventsProducer producer;
+    private final UserBatchRepository userBatchRepository;
+    private final ListTotalsCache listTotals;
+    private final DepartmentMembershipIndex membershipIndex;
+    private final UserUpdateRepository userUpdateRepository;
 
-    public EmployeeService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder, AuthContext authContext, DepartmentRepository departmentRepository, UserEventsProducer producer) {
+    public EmployeeService(UserRepository userRepository, RoleRegistry roleRegistry, PasswordEncoder passwordEncoder, AuthContext authContext, DepartmentRepository departmentRepository, UserEventsProducer producer, UserBatchRepository userBatchRepository, ListTotalsCache listTotals, DepartmentMembershipIndex membershipIndex, UserUpdateRepository userUpdateRepository) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.roleRegistry = roleRegistry;
         this.passwordEncoder = passwordEncoder;
         this.authContext = authContext;
         this.departmentRepository = departmentRepository;
         this.producer = producer;
+        this.userBatchRepository = userBatchRepository;
+        this.listTotals = listTotals;
+        this.membershipIndex = membershipIndex;
+        this.userUpdateRepository = userUpdateRepository;
     }
 
     private void validateCreateUserRequest(MutateUserRequest request) {
@@ -65,7 +90,7 @@ public class EmployeeService {
             throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Last name cannot exceed 50 characters");
         }
 
-        if (!StringUtils.hasText(request.getRole()) || !List.of(Role.EMPLOYEE, Role.ADMIN, Role.MANAGER).contains(request.getRole())) {
+        if (!StringUtils.hasText(request.getRole()) || !roleRegistry.contains(request.getRole())) {
             throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Invalid user type");
         }
 
@@ -77,7 +102,7 @@ public class EmployeeService {
     @Transactional
     public UserDTO create(MutateUserRequest request) {
         validateCreateUserRequest(request);
-        var role = roleRepository.findByName(request.getRole());
+        var role = roleRegistry.find(request.getRole());
         if (role.isEmpty()) {
             throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "Invalid user type");
         }
@@ -101,39 +126,99 @@ public class EmployeeService {
                 DateUtils.now()
         );
         user = userRepository.save(user);
-        userRepository.insertUserRole(user.getId(), role.get().getId());
+        userRepository.insertUserRole(user.getId(), role.get().id());
         departmentRepository.insertUserDepartments(user.getId(), request.getDepartmentId());
         producer.sendUserCreatedEvent(user.getId());
         return UserMapper.toUserDTO(user);
     }
 
     @Transactional
-    public UserDTO update(Long id, MutateUserRequest request) {
-        validateCreateUserRequest(request);
-        User user = userRepository.findById(id).orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "User not found."));
+    public List<BatchUserResult> createBatch(BatchCreateUsersRequest request) {
+        var rows = request == null || request.getUsers() == null ? List.<MutateUserRequest>of() : request.getUsers();
+        if (rows.isEmpty()) {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, "At least one user is required");
+        }
+        if (rows.size() > maxBatchSize) {
+            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST, String.format("A batch cannot exceed %d users", maxBatchSize));
+        }
 
-        if (!request.getEmail().equals(user.getEmail())) {
-            var exists = userRepository.existsByEmail(request.getEmail(), user.getId());
-            if (exists) {
-                throw new HttpClientErrorException(HttpStatus.CONFLICT, "Email already exists");
+        var results = new BatchUserResult[rows.size()];
+        var seenEmails = new HashSet<String>();
+        var candidates = new ArrayList<Integer>();
+        for (int i = 0; i < rows.size(); i++) {
+            var row = rows.get(i);
+            if (row == null) {
+                results[i] = BatchUserResult.failed(i, null, "User cannot be empty");
+                continue;
+            }
+            try {
+                validateCreateUserRequest(row);
+            } catch (HttpClientErrorException e) {
+                results[i] = BatchUserResult.failed(i, row.getEmail(), e.getStatusText());
+                continue;
+            }
+            if (!seenEmails.add(row.getEmail())) {
+                results[i] = BatchUserResult.failed(i, row.getEmail(), "Email is duplicated in this batch");
+            } else {
+                candidates.add(i);
             }
         }
 
-        user.setFirstName(request.getFirstName());
-        user.setLastName(request.getLastName());
-        user.setEmail(request.getEmail());
+        var existingEmails = userBatchRepository.findExistingEmails(candidates.stream().map(i -> rows.get(i).getEmail()).toList());
+        var existingDepartments = userBatchRepository.findExistingDepartmentIds(candidates.stream().map(i -> rows.get(i).getDepartmentId()).toList());
 
-        var exists = departmentRepository.existsByDepartmentAndUser(user.getId(), request.getDepartmentId());
-        if (!exists) {
-            var deptExists = departmentRepository.existsById(request.getDepartmentId());
-            if (!deptExists) {
-                throw new HttpClientErrorException(HttpStatus.CONFLICT, "Department does not exist");
+        var users = new ArrayList<User>();
+        var userIndexes = new ArrayList<Integer>();
+        String passwordHash = null;
+        for (var i : candidates) {
+            var row = rows.get(i);
+            if (existingEmails.contains(row.getEmail())) {
+                results[i] = BatchUserResult.failed(i, row.getEmail(), "Email already exists");
+            } else if (!existingDepartments.contains(row.getDepartmentId())) {
+                results[i] = BatchUserResult.failed(i, row.getEmail(), "Department does not exist");
+            } else {
+                if (passwordHash == null) {
+                    passwordHash = passwordEncoder.encode(defaultPassword);
+                }
+                users.add(new User(row.getFirstName(), row.getLastName(), passwordHash, row.getEmail(), Status.INACTIVE, DateUtils.now()));
+                userIndexes.add(i);
             }
-            departmentRepository.deleteDepartmentUsers(user.getId());
-            departmentRepository.insertUserDepartments(user.getId(), request.getDepartmentId());
         }
-        user = userRepository.save(user);
-        return UserMapper.toUserDTO(user);
+
+        if (!users.isEmpty()) {
+            userBatchRepository.insertUsers(users);
+            var userRoles = new ArrayList<long[]>(users.size());
+            var userDepartments = new ArrayList<long[]>(users.size());
+            for (int u = 0; u < users.size(); u++) {
+                var row = rows.get(userIndexes.get(u));
+                userRoles.add(new long[]{users.get(u).getId(), roleRegistry.find(row.getRole()).orElseThrow().id()});
+                userDepartments.add(new long[]{users.get(u).getId(), row.getDepartmentId()});
+                results[userIndexes.get(u)] = BatchUserResult.created(userIndexes.get(u), UserMapper.toUserDTO(users.get(u)));
+            }
+            userBatchRepository.insertUserRoles(userRoles);
+            userBatchRepository.insertUserDepartments(userDepartments);
+            producer.sendUsersCreatedEvent(users.stream().map(User::getId).toList());
+        }
+        return Arrays.asList(results);
+    }
+
+    @Transactional
+    public UserDTO update(Long id, MutateUserRequest request) {
+        validateCreateUserRequest(request);
+        UserUpdateRepository.Result result;
+        try {
+            result = userUpdateRepository.update(id, request.getFirstName(), request.getLastName(), request.getEmail(), request.getDepartmentId());
+        } catch (DuplicateKeyException e) {
+            throw new HttpClientErrorException(HttpStatus.CONFLICT, "Email already exists");
+        }
+        if (!result.userFound()) {
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND, "User not found.");
+        }
+        if (!result.departmentFound()) {
+            throw new HttpClientErrorException(HttpStatus.CONFLICT, "Department does not exist");
+        }
+        producer.sendUserUpdatedEvent(id);
+        return result.user();
     }
 
     @Transactional
@@ -145,36 +230,118 @@ public class EmployeeService {
         userRepository.deleteUserDepartments(id);
         userRepository.deleteUserRoles(id);
         userRepository.deleteById(id);
+        producer.sendUserDeletedEvent(id);
     }
 
     public UserDTO getById(Long id) {
         var currentUser = authContext.getCurrentUser();
-        if (currentUser.isEmployee() && currentUser.getId() != id) {
+        if (currentUser.isEmployee() && currentUser.id() != id) {
             throw new HttpClientErrorException(HttpStatus.FORBIDDEN, "Access denied");
         }
         if (currentUser.isManager()) {
-            boolean hasAccess = departmentRepository.hasAccessToUser(id, currentUser.getId());
-            if (!hasAccess) {
+            // Access is always decided by the database; the membership index trails writes made on other instances.
+            if (!departmentRepository.hasAccessToUser(id, currentUser.id())) {
                 throw new HttpClientErrorException(HttpStatus.FORBIDDEN, "Access denied");
             }
         }
-        var user = userRepository.findById(id).orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "User not found"));
-        return UserMapper.toUserDTO(user);
+        return userRepository.findDtoById(id).orElseThrow(() -> new HttpClientErrorException(HttpStatus.NOT_FOUND, "User not found"));
     }
 
-    public List<UserDTO> getAllUsers(Integer page, Integer size) {
+    public Slice<UserDTO> getAllUsers(Integer page, Integer size) {
         int pageNumber = (page != null && page >= 0) ? page : 0;
         int pageSize = (size != null && size > 0) ? size : 10;
 
         Pageable pageable = PageRequest.of(pageNumber, pageSize);
-        Page<User> users;
         var currentUser = authContext.getCurrentUser();
+        if (currentUser.isManager() && membershipIndex.isReady()) {
+            return sliceOf(currentUser.id(), membershipIndex.visibleTo(currentUser.id()), pageable);
+        }
         if (currentUser.isManager()) {
-            users = userRepository.findUsersInSameDepartmentsAsManager(currentUser.getId(), pageable);
+            return userRepository.findUsersInSameDepartmentsAsManager(currentUser.id(), pageable);
+        }
+        return userRepository.findDtoSlice(pageable);
+    }
+
+    public long estimateUserTotal() {
+        var currentUser = authContext.getCurrentUser();
+        // Only a count, so the index's view is close enough and no ids are disclosed.
+        if (currentUser.isManager() && membershipIndex.isReady()) {
+            return membershipIndex.visibleTo(currentUser.id()).getLongCardinality();
+        }
+        if (currentUser.isManager()) {
+            return listTotals.usersVisibleTo(currentUser.id());
+        }
+        return listTotals.users();
+    }
+
+    public CursorPage<UserDTO> getUsersAfter(String cursor, Integer size) {
+        int pageSize = CursorPage.size(size);
+        long afterId = CursorPage.decode(cursor);
+
+        List<UserDTO> users;
+        var currentUser = authContext.getCurrentUser();
+        if (currentUser.isManager() && membershipIndex.isReady()) {
+            users = findVisibleAfter(currentUser.id(), membershipIndex.visibleTo(currentUser.id()), afterId, pageSize + 1);
+        } else if (currentUser.isManager()) {
+            users = userRepository.findUsersInSameDepartmentsAsManagerAfter(currentUser.id(), afterId, Limit.of(pageSize + 1));
         } else {
-            users = userRepository.findAll(pageable);
+            users = userRepository.findDtosAfter(afterId, Limit.of(pageSize + 1));
+        }
+
+        return CursorPage.of(users, pageSize, UserDTO::getId, Function.identity());
+    }
+
+    // Rows are handed to the sink as they are read, so memory stays flat however many users are visible.
+    @Transactional
+    public void exportUsers(Consumer<UserDTO> sink) {
+        var currentUser = authContext.getCurrentUser();
+        if (!currentUser.isAdmin() && !currentUser.isManager()) {
+            throw new HttpClientErrorException(HttpStatus.FORBIDDEN, "Access denied");
         }
+        if (currentUser.isManager() && membershipIndex.isReady()) {
+            var ids = new ArrayList<Long>(UserRepository.EXPORT_FETCH_SIZE);
+            var iterator = membershipIndex.visibleTo(currentUser.id()).getIntIterator();
+            while (iterator.hasNext()) {
+                ids.add(Integer.toUnsignedLong(iterator.next()));
+                if (ids.size() == UserRepository.EXPORT_FETCH_SIZE || !iterator.hasNext()) {
+                    userRepository.findUsersInSameDepartmentsAsManagerByIdIn(currentUser.id(), ids).forEach(sink);
+                    ids.clear();
+                }
+            }
+            return;
+        }
+        try (var users = currentUser.isManager()
+                ? userRepository.streamUsersInSameDepartmentsAsManager(currentUser.id())
+                : userRepository.streamAll()) {
+            users.forEach(sink);
+        }
+    }
 
-        return users.stream().map(UserMapper::toUserDTO).collect(Collectors.toList());
+    private Slice<UserDTO> sliceOf(long managerId, RoaringBitmap visible, Pageable pageable) {
+        var cardinality = visible.getLongCardinality();
+        if (pageable.getOffset() >= cardinality) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        var users = findVisibleAfter(managerId, visible, Integer.toUnsignedLong(visible.select((int) pageable.getOffset())) - 1, pageable.getPageSize());
+        return new SliceImpl<>(users, pageable, pageable.getOffset() + pageable.getPageSize() < cardinality);
+    }
+
+    // The bitmap only proposes candidates; each chunk is confirmed in the database, and ids dropped there
+    // (users who already left the department) are made up from further candidates.
+    private List<UserDTO> findVisibleAfter(long managerId, RoaringBitmap visible, long afterId, int limit) {
+        if (afterId >= Integer.MAX_VALUE) {
+            return List.of();
+        }
+        var users = new ArrayList<UserDTO>(limit);
+        var iterator = visible.getIntIterator();
+        iterator.advanceIfNeeded((int) (afterId + 1));
+        while (iterator.hasNext() && users.size() < limit) {
+            var ids = new ArrayList<Long>(limit - users.size());
+            while (iterator.hasNext() && ids.size() < limit - users.size()) {
+                ids.add(Integer.toUnsignedLong(iterator.next()));
+            }
+            users.addAll(userRepository.findUsersInSameDepartmentsAsManagerByIdIn(managerId, ids));
+        }
+        return users;
     }
 }
@@ -0,0 +1,16 @@
+package com.bytebard.employee.types;
+
+import java.util.List;
+
+public class BatchCreateUsersRequest {
+
+    private List<MutateUserRequest> users;
+
+    public List<MutateUserRequest> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<MutateUserRequest> users) {
+        this.users = users;
+    }
+}
@@ -0,0 +1,48 @@
+package com.bytebard.employee.types;
+
+import com.bytebard.core.api.types.UserDTO;
+
+public class BatchUserResult {
+
+    private final int index;
+    private final String email;
+    private final boolean success;
+    private final UserDTO user;
+    private final String error;
+
+    private BatchUserResult(int index, String email, boolean success, UserDTO user, String error) {
+        this.index = index;
+        this.email = email;
+        this.success = success;
+        this.user = user;
+        this.error = error;
+    }
+
+    public static BatchUserResult created(int index, UserDTO user) {
+        return new BatchUserResult(index, user.getEmail(), true, user, null);
+    }
+
+    public static BatchUserResult failed(int index, String email, String error) {
+        return new BatchUserResult(index, email, false, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public UserDTO getUser() {
+        return user;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,81 @@
+package com.bytebard.employee.cache;
+
+import com.bytebard.core.api.repositories.DepartmentRepository;
+import com.bytebard.core.messaging.models.Events;
+import com.bytebard.core.messaging.models.UserEventMessage;
+import com.bytebard.utils.DateUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DepartmentMembershipIndexTest {
+
+    private DepartmentRepository departmentRepository;
+    private DepartmentMembershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        departmentRepository = mock(DepartmentRepository.class);
+        when(departmentRepository.findAllMemberships()).thenReturn(List.of(
+                new Object[]{1L, 10L},
+                new Object[]{2L, 10L},
+                new Object[]{3L, 20L},
+                new Object[]{4L, 10L},
+                new Object[]{4L, 20L}
+        ));
+        index = new DepartmentMembershipIndex(departmentRepository, new SimpleMeterRegistry(), true);
+        index.load();
+    }
+
+    @Test
+    void load_answersMembershipFromBitmaps() {
+        assertTrue(index.isReady());
+        assertTrue(index.visibleTo(1L).contains(2));
+        assertFalse(index.visibleTo(1L).contains(3));
+        assertTrue(index.visibleTo(4L).contains(3));
+    }
+
+    @Test
+    void visibleTo_unionsAllManagerDepartments() {
+        assertEquals(RoaringBitmap.bitmapOf(1, 2, 3, 4), index.visibleTo(4L));
+        assertEquals(RoaringBitmap.bitmapOf(1, 2, 4), index.visibleTo(1L));
+        assertTrue(index.visibleTo(99L).isEmpty());
+    }
+
+    @Test
+    void onUserEvent_reloadsMovedUser_withoutMutatingPublishedBitmaps() {
+        var before = index.visibleTo(1L);
+        when(departmentRepository.findDepartmentIdsByUserId(2L)).thenReturn(List.of(20L));
+
+        index.onUserEvent(new UserEventMessage(2L, Events.USER_UPDATED, DateUtils.now()));
+
+        assertFalse(index.visibleTo(1L).contains(2));
+        assertTrue(index.visibleTo(3L).contains(2));
+        assertTrue(before.contains(2));
+    }
+
+    @Test
+    void onUserEvent_dropsDeletedUsers_andReloadsDepartmentChanges() {
+        when(departmentRepository.findDepartmentIdsByUserId(1L)).thenReturn(List.of());
+
+        index.onUserEvent(new UserEventMessage(4L, Events.USER_DELETED, DateUtils.now()));
+        index.onUserEvent(new UserEventMessage(null, Events.USER_DEPARTMENTS_CHANGED, DateUtils.now(), List.of(1L)));
+
+        assertEquals(RoaringBitmap.bitmapOf(2), index.visibleTo(2L));
+        assertEquals(RoaringBitmap.bitmapOf(3), index.visibleTo(3L));
+    }
+
+    @Test
+    void load_staysOnDatabase_whenDisabled() {
+        var disabled = new DepartmentMembershipIndex(departmentRepository, new SimpleMeterRegistry(), false);
+        disabled.load();
+
+        assertFalse(disabled.isReady());
+    }
+}
@@ -6,11 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
@@ -18,6 +21,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = DepartmentController.class)
@@ -73,10 +77,22 @@ class DepartmentControllerTest {
 
     @Test
     void getAllEndpoint_returnsOk() throws Exception {
-        when(departmentService.getAll(any(), any())).thenReturn(null);
+        when(departmentService.getAll(any(), any())).thenReturn(new SliceImpl<>(List.of()));
         var url = Routes.DEPARTMENTS + "?page=0&size=10";
 
         mockMvc.perform(get(url))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string(Routes.HAS_NEXT_HEADER, "false"));
+    }
+
+    @Test
+    void getAllEndpoint_addsEstimatedTotal_whenRequested() throws Exception {
+        when(departmentService.getAll(any(), any())).thenReturn(new SliceImpl<>(List.of()));
+        when(departmentService.estimateTotal()).thenReturn(42L);
+        var url = Routes.DEPARTMENTS + "?page=0&size=10&total=true";
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Routes.TOTAL_COUNT_HEADER, "42"));
     }
 }
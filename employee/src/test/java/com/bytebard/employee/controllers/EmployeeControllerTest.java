@@ -1,20 +1,38 @@
 package com.bytebard.employee.controllers;
 
 import com.bytebard.core.api.constants.Routes;
+import com.bytebard.core.api.types.CursorPage;
+import com.bytebard.core.api.types.UserDTO;
 import com.bytebard.employee.services.EmployeeService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -43,6 +61,17 @@ class EmployeeControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void createBatchEndpoint_returnsOk() throws Exception {
+        when(employeeService.createBatch(any())).thenReturn(List.of());
+        var url = String.format("%s%s", Routes.USERS, Routes.BATCH);
+
+        mockMvc.perform(post(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"users\":[{\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"john.doe@example.com\"}]}"))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void updateEndpoint_returnsOk() throws Exception {
         when(employeeService.update(any(), any())).thenReturn(null);
@@ -74,10 +103,86 @@ class EmployeeControllerTest {
 
     @Test
     void getAllEndpoint_returnsOk() throws Exception {
-        when(employeeService.getAllUsers(any(), any())).thenReturn(null);
+        when(employeeService.getAllUsers(any(), any())).thenReturn(new SliceImpl<>(List.of()));
         var url = Routes.USERS + "?page=0&size=10";
 
         mockMvc.perform(get(url))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(header().string(Routes.HAS_NEXT_HEADER, "false"))
+                .andExpect(header().doesNotExist(Routes.TOTAL_COUNT_HEADER));
+        verify(employeeService, never()).estimateUserTotal();
+    }
+
+    @Test
+    void getAllEndpoint_addsEstimatedTotal_whenRequested() throws Exception {
+        when(employeeService.getAllUsers(any(), any())).thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 10), true));
+        when(employeeService.estimateUserTotal()).thenReturn(1234L);
+        var url = Routes.USERS + "?page=0&size=10&total=true";
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Routes.HAS_NEXT_HEADER, "true"))
+                .andExpect(header().string(Routes.TOTAL_COUNT_HEADER, "1234"));
+    }
+
+    @Test
+    void getAllEndpoint_usesKeysetPaging_whenCursorPresent() throws Exception {
+        when(employeeService.getUsersAfter(eq("abc"), eq(5))).thenReturn(new CursorPage<>(List.of(), "def"));
+        var url = Routes.USERS + "?cursor=abc&size=5";
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.next").value("def"));
+        verify(employeeService, never()).getAllUsers(any(), any());
+    }
+
+    @Test
+    void exportEndpoint_streamsCsvRows() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDTO> sink = invocation.getArgument(0);
+            sink.accept(new UserDTO(1L, "Ada", "Lovelace, Countess", "ada@ex.com", "ACTIVE", LocalDateTime.of(2025, 1, 2, 3, 4)));
+            return null;
+        }).when(employeeService).exportUsers(any());
+        var url = Routes.USERS + Routes.EXPORT + "?format=csv";
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(content().string("id,firstName,lastName,email,status,createdAt\n1,Ada,\"Lovelace, Countess\",ada@ex.com,ACTIVE,2025-01-02T03:04\n"));
+    }
+
+    @Test
+    void exportEndpoint_neutralisesCsvFormulas() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDTO> sink = invocation.getArgument(0);
+            sink.accept(new UserDTO(1L, "=HYPERLINK(\"http://evil\",\"x\")", "+1", "@sum@ex.com", "-2", null));
+            sink.accept(new UserDTO(2L, "\tTab", "O'Neil", "o@ex.com", "ACTIVE", null));
+            return null;
+        }).when(employeeService).exportUsers(any());
+        var url = Routes.USERS + Routes.EXPORT + "?format=csv";
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(content().string("id,firstName,lastName,email,status,createdAt\n" +
+                        "1,\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\",'+1,'@sum@ex.com,'-2,\n" +
+                        "2,'\tTab,O'Neil,o@ex.com,ACTIVE,\n"));
+    }
+
+    @Test
+    void exportEndpoint_writesNdjsonByDefault() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDTO> sink = invocation.getArgument(0);
+            sink.accept(new UserDTO(1L, "A", "B", "a@ex.com", "ACTIVE", null));
+            sink.accept(new UserDTO(2L, "C", "D", "c@ex.com", "ACTIVE", null));
+            return null;
+        }).when(employeeService).exportUsers(any());
+
+        var body = mockMvc.perform(get(Routes.USERS + Routes.EXPORT))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        var lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"email\":\"c@ex.com\""));
     }
 }
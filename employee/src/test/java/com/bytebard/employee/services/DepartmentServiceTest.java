@@ -1,14 +1,18 @@
 package com.bytebard.employee.services;
 
+import com.bytebard.core.api.cache.ListTotalsCache;
 import com.bytebard.core.api.models.Department;
 import com.bytebard.core.api.repositories.DepartmentRepository;
+import com.bytebard.core.api.types.CursorPage;
+import com.bytebard.core.messaging.producer.UserEventsProducer;
 import com.bytebard.employee.types.MutateDepartmentRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.client.HttpClientErrorException;
@@ -25,13 +29,19 @@ class DepartmentServiceTest {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    @Mock
+    private ListTotalsCache listTotals;
+
+    @Mock
+    private UserEventsProducer producer;
+
     private DepartmentService departmentService;
     private AutoCloseable mocksCloseable;
 
     @BeforeEach
     void setup() {
         mocksCloseable = MockitoAnnotations.openMocks(this);
-        departmentService = new DepartmentService(departmentRepository);
+        departmentService = new DepartmentService(departmentRepository, listTotals, producer);
     }
 
     @AfterEach
@@ -63,14 +73,59 @@ class DepartmentServiceTest {
     @Test
     void getAll_returnsPagedDepartmentDTOs() {
         var list = List.of(new Department(1L, "HR"), new Department(2L, "Engineering"));
-        when(departmentRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(list));
+        when(departmentRepository.findSliceBy(any(Pageable.class))).thenReturn(new SliceImpl<>(list));
 
         var dtos = departmentService.getAll(null, null);
 
         assertNotNull(dtos);
-        assertEquals(2, dtos.size());
-        assertEquals("HR", dtos.get(0).getName());
-        assertEquals("Engineering", dtos.get(1).getName());
+        assertEquals(2, dtos.getContent().size());
+        assertEquals("HR", dtos.getContent().get(0).getName());
+        assertEquals("Engineering", dtos.getContent().get(1).getName());
+        verify(departmentRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void estimateTotal_readsCachedDepartmentTotal() {
+        when(listTotals.departments()).thenReturn(7L);
+
+        assertEquals(7L, departmentService.estimateTotal());
+    }
+
+    @Test
+    void getAfter_returnsNextCursor_whenMoreRowsRemain() {
+        var rows = List.of(new Department(1L, "HR"), new Department(2L, "Engineering"), new Department(3L, "Sales"));
+        when(departmentRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(rows);
+
+        var page = departmentService.getAfter("", 2);
+
+        assertEquals(List.of("HR", "Engineering"), page.getItems().stream().map(d -> d.getName()).toList());
+        assertEquals(2L, CursorPage.decode(page.getNext()));
+    }
+
+    @Test
+    void getAfter_resumesFromCursor_andEndsWithoutNext() {
+        when(departmentRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(3))).thenReturn(List.of(new Department(3L, "Sales")));
+
+        var page = departmentService.getAfter(CursorPage.encode(2L), 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    void getAfter_clampsOversizedPage() {
+        when(departmentRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(CursorPage.MAX_SIZE + 1))).thenReturn(List.of());
+
+        var page = departmentService.getAfter(null, Integer.MAX_VALUE);
+
+        assertTrue(page.getItems().isEmpty());
+        verify(departmentRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(CursorPage.MAX_SIZE + 1));
+    }
+
+    @Test
+    void getAfter_rejectsMalformedCursor() {
+        var ex = assertThrows(HttpClientErrorException.class, () -> departmentService.getAfter("not-a-cursor!", 2));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
     }
 
     @Test
@@ -154,6 +209,7 @@ class DepartmentServiceTest {
     @Test
     void delete_succeeds_whenExists() {
         when(departmentRepository.existsById(3L)).thenReturn(true);
+        when(departmentRepository.findUserIdsByDepartmentId(3L)).thenReturn(List.of(7L, 8L));
         doNothing().when(departmentRepository).deleteDepartmentUsers(3L);
         doNothing().when(departmentRepository).deleteById(3L);
 
@@ -161,6 +217,7 @@ class DepartmentServiceTest {
 
         verify(departmentRepository).deleteDepartmentUsers(3L);
         verify(departmentRepository).deleteById(3L);
+        verify(producer).sendUserDepartmentsChangedEvent(List.of(7L, 8L));
     }
 
     @Test
@@ -1,13 +1,22 @@
 package com.bytebard.employee.services;
 
+import com.bytebard.core.api.cache.ListTotalsCache;
 import com.bytebard.core.api.context.AuthContext;
 import com.bytebard.core.api.models.Role;
 import com.bytebard.core.api.models.Status;
 import com.bytebard.core.api.models.User;
 import com.bytebard.core.api.repositories.DepartmentRepository;
 import com.bytebard.core.api.repositories.RoleRepository;
+import com.bytebard.core.api.repositories.UserBatchRepository;
 import com.bytebard.core.api.repositories.UserRepository;
+import com.bytebard.core.api.repositories.UserUpdateRepository;
+import com.bytebard.core.api.security.AuthPrincipal;
+import com.bytebard.core.api.security.RoleRegistry;
+import com.bytebard.core.api.types.CursorPage;
+import com.bytebard.core.api.types.UserDTO;
 import com.bytebard.core.messaging.producer.UserEventsProducer;
+import com.bytebard.employee.cache.DepartmentMembershipIndex;
+import com.bytebard.employee.types.BatchCreateUsersRequest;
 import com.bytebard.employee.types.MutateUserRequest;
 import com.bytebard.utils.DateUtils;
 import org.junit.jupiter.api.AfterEach;
@@ -15,7 +24,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.domain.PageImpl;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -23,12 +36,16 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.HttpClientErrorException;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 public class EmployeeServiceTest {
@@ -48,6 +65,18 @@ public class EmployeeServiceTest {
     @Mock
     private UserEventsProducer producer;
 
+    @Mock
+    private UserBatchRepository userBatchRepository;
+
+    @Mock
+    private ListTotalsCache listTotals;
+
+    @Mock
+    private DepartmentMembershipIndex membershipIndex;
+
+    @Mock
+    private UserUpdateRepository userUpdateRepository;
+
     private PasswordEncoder passwordEncoder;
 
     private EmployeeService employeeService;
@@ -57,8 +86,12 @@ public class EmployeeServiceTest {
     void setup() {
         mocksCloseable = MockitoAnnotations.openMocks(this);
         passwordEncoder = new BCryptPasswordEncoder();
-        employeeService = new EmployeeService(userRepository, roleRepository, passwordEncoder, authContext, departmentRepository, producer);
+        when(roleRepository.findAll()).thenReturn(List.of(role(Role.ADMIN, 2L), role(Role.MANAGER, 3L), role(Role.EMPLOYEE, 4L)));
+        var roleRegistry = new RoleRegistry(roleRepository);
+        roleRegistry.load();
+        employeeService = new EmployeeService(userRepository, roleRegistry, passwordEncoder, authContext, departmentRepository, producer, userBatchRepository, listTotals, membershipIndex, userUpdateRepository);
         ReflectionTestUtils.setField(employeeService, "defaultPassword", "DefaultPwd123!");
+        ReflectionTestUtils.setField(employeeService, "maxBatchSize", 100);
     }
 
     @AfterEach
@@ -68,6 +101,73 @@ public class EmployeeServiceTest {
         }
     }
 
+    @Test
+    void createBatch_insertsValidRows_andReportsFailuresPerRow() {
+        when(userBatchRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("taken@email.com"));
+        when(userBatchRepository.findExistingDepartmentIds(anyCollection())).thenReturn(Set.of(1L));
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            for (int i = 0; i < users.size(); i++) {
+                users.get(i).setId(100L + i);
+            }
+            return null;
+        }).when(userBatchRepository).insertUsers(anyList());
+
+        var request = new BatchCreateUsersRequest();
+        request.setUsers(List.of(
+                batchRow("first@email.com", 1L),
+                batchRow("taken@email.com", 1L),
+                batchRow("first@email.com", 1L),
+                batchRow("second@email.com", 9L),
+                batchRow("not-an-email", 1L),
+                batchRow("third@email.com", 1L)
+        ));
+
+        var results = employeeService.createBatch(request);
+
+        assertEquals(6, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(100L, results.get(0).getUser().getId());
+        assertEquals("Email already exists", results.get(1).getError());
+        assertEquals("Email is duplicated in this batch", results.get(2).getError());
+        assertEquals("Department does not exist", results.get(3).getError());
+        assertEquals("Invalid email format", results.get(4).getError());
+        assertTrue(results.get(5).isSuccess());
+        assertEquals(101L, results.get(5).getUser().getId());
+
+        verify(userBatchRepository).insertUsers(argThat(users -> users.size() == 2 && users.get(0).getPassword().equals(users.get(1).getPassword())));
+        verify(userBatchRepository).insertUserRoles(argThat(rows -> rows.size() == 2 && rows.get(1)[0] == 101L && rows.get(1)[1] == 2L));
+        verify(userBatchRepository).insertUserDepartments(argThat(rows -> rows.size() == 2 && rows.get(0)[1] == 1L));
+        verify(producer).sendUsersCreatedEvent(List.of(100L, 101L));
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void createBatch_rejectsOversizedBatch() {
+        var request = new BatchCreateUsersRequest();
+        request.setUsers(Collections.nCopies(101, batchRow("a@email.com", 1L)));
+
+        var ex = assertThrows(HttpClientErrorException.class, () -> employeeService.createBatch(request));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(userBatchRepository);
+    }
+
+    private static Role role(String name, long id) {
+        var role = new Role(name);
+        role.setId(id);
+        return role;
+    }
+
+    private MutateUserRequest batchRow(String email, Long departmentId) {
+        var row = new MutateUserRequest();
+        row.setFirstName("John");
+        row.setLastName("Doe");
+        row.setEmail(email);
+        row.setRole(Role.ADMIN);
+        row.setDepartmentId(departmentId);
+        return row;
+    }
+
     @Test
     void create_succeeds_andReturnsUserDTO() {
         var req = new MutateUserRequest();
@@ -77,9 +177,7 @@ public class EmployeeServiceTest {
         req.setRole(Role.ADMIN);
         req.setDepartmentId(1L);
 
-        var role = new Role(Role.ADMIN);
-        role.setId(2L);
-        when(roleRepository.findByName(Role.ADMIN)).thenReturn(Optional.of(role));
+        var role = role(Role.ADMIN, 2L);
         when(userRepository.existsByEmail(req.getEmail())).thenReturn(false);
         when(departmentRepository.existsById(1L)).thenReturn(true);
 
@@ -101,6 +199,7 @@ public class EmployeeServiceTest {
         verify(userRepository).insertUserRole(eq(42L), eq(role.getId()));
         verify(departmentRepository).insertUserDepartments(eq(42L), eq(1L));
         verify(producer).sendUserCreatedEvent(eq(42L));
+        verify(roleRepository, never()).findByName(any());
     }
 
     @Test
@@ -117,7 +216,7 @@ public class EmployeeServiceTest {
     }
 
     @Test
-    void update_succeeds_andReturnsUserDTO() {
+    void update_succeeds_inOneStatement_andReturnsUserDTO() {
         var req = new MutateUserRequest();
         req.setFirstName("Jane");
         req.setLastName("Doe");
@@ -125,39 +224,23 @@ public class EmployeeServiceTest {
         req.setRole(Role.EMPLOYEE);
         req.setDepartmentId(5L);
 
-        var role = new Role(Role.EMPLOYEE);
-        role.setId(3L);
-        when(roleRepository.findByName(Role.EMPLOYEE)).thenReturn(Optional.of(role));
-
-        var existing = new User("Old", "Name", "pw", "old@example.com", Status.ACTIVE, DateUtils.now(), Set.of(role));
-        existing.setId(11L);
-        when(userRepository.findById(11L)).thenReturn(Optional.of(existing));
-
-        when(departmentRepository.existsByDepartmentAndUser(11L, 5L)).thenReturn(false);
-        when(departmentRepository.existsById(5L)).thenReturn(true);
-
-        var saved = new User("Jane", "Doe", "pw2", "jane.doe@example.com", Status.ACTIVE, DateUtils.now(), Set.of(role));
-        saved.setId(11L);
-        when(userRepository.save(any(User.class))).thenReturn(saved);
-
-        doNothing().when(departmentRepository).deleteDepartmentUsers(11L);
-        doNothing().when(departmentRepository).insertUserDepartments(11L, 5L);
+        var updated = new UserDTO(11L, "Jane", "Doe", "jane.doe@example.com", Status.ACTIVE, DateUtils.now());
+        when(userUpdateRepository.update(11L, "Jane", "Doe", "jane.doe@example.com", 5L))
+                .thenReturn(new UserUpdateRepository.Result(true, true, updated));
 
         var dto = employeeService.update(11L, req);
 
-        assertNotNull(dto);
-        assertEquals(11L, dto.getId());
-        assertEquals("jane.doe@example.com", dto.getEmail());
-        verify(userRepository).save(any(User.class));
-        verify(departmentRepository).deleteDepartmentUsers(11L);
-        verify(departmentRepository).insertUserDepartments(11L, 5L);
+        assertSame(updated, dto);
+        verify(userUpdateRepository, times(1)).update(anyLong(), any(), any(), any(), anyLong());
+        verifyNoMoreInteractions(userUpdateRepository);
+        verifyNoInteractions(userRepository, departmentRepository);
+        verify(producer).sendUserUpdatedEvent(11L);
     }
 
     @Test
     void update_throwsNotFound_whenUserMissing() {
-        when(roleRepository.findByName(Role.EMPLOYEE)).thenReturn(Optional.of(new Role(Role.EMPLOYEE)));
-
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userUpdateRepository.update(eq(999L), any(), any(), any(), anyLong()))
+                .thenReturn(new UserUpdateRepository.Result(false, true, null));
         var req = new MutateUserRequest();
         req.setFirstName("X");
         req.setLastName("Y");
@@ -167,6 +250,23 @@ public class EmployeeServiceTest {
 
         var ex = assertThrows(HttpClientErrorException.class, () -> employeeService.update(999L, req));
         assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+        verifyNoInteractions(producer);
+    }
+
+    @Test
+    void update_throwsConflict_whenDepartmentMissing() {
+        when(userUpdateRepository.update(eq(11L), any(), any(), any(), eq(404L)))
+                .thenReturn(new UserUpdateRepository.Result(true, false, null));
+        var req = new MutateUserRequest();
+        req.setFirstName("X");
+        req.setLastName("Y");
+        req.setEmail("x@y.com");
+        req.setRole(Role.EMPLOYEE);
+        req.setDepartmentId(404L);
+
+        var ex = assertThrows(HttpClientErrorException.class, () -> employeeService.update(11L, req));
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        assertEquals("Department does not exist", ex.getStatusText());
     }
 
     @Test
@@ -178,8 +278,6 @@ public class EmployeeServiceTest {
         req.setRole("UNKNOWN_ROLE");
         req.setDepartmentId(1L);
 
-        when(roleRepository.findByName("UNKNOWN_ROLE")).thenReturn(Optional.empty());
-
         var ex = assertThrows(HttpClientErrorException.class, () -> employeeService.update(5L, req));
         assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
         assertEquals("Invalid user type", ex.getStatusText());
@@ -195,19 +293,13 @@ public class EmployeeServiceTest {
         req.setRole(Role.EMPLOYEE);
         req.setDepartmentId(2L);
 
-        var role = new Role(Role.EMPLOYEE);
-        role.setId(7L);
-        var existing = new User("Old", "Name", "pw", "old@example.com", Status.ACTIVE, DateUtils.now(), Set.of(role));
-        existing.setId(20L);
-
-        when(roleRepository.findByName(Role.EMPLOYEE)).thenReturn(Optional.of(role));
-        when(userRepository.findById(20L)).thenReturn(Optional.of(existing));
-        when(userRepository.existsByEmail("new@example.com", 20L)).thenReturn(true);
+        when(userUpdateRepository.update(20L, "Jane", "Doe", "new@example.com", 2L))
+                .thenThrow(new DuplicateKeyException("users_email_key"));
 
         var ex = assertThrows(HttpClientErrorException.class, () -> employeeService.update(20L, req));
         assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
         assertEquals("Email already exists", ex.getStatusText());
-        verify(userRepository, never()).save(any());
+        verifyNoInteractions(producer);
     }
 
     @Test
@@ -236,6 +328,7 @@ public class EmployeeServiceTest {
         verify(userRepository).deleteUserDepartments(5L);
         verify(userRepository).deleteUserRoles(5L);
         verify(userRepository).deleteById(5L);
+        verify(producer).sendUserDeletedEvent(5L);
     }
 
     @Test
@@ -248,9 +341,7 @@ public class EmployeeServiceTest {
 
     @Test
     void getById_deniesAccess_whenCurrentUserIsEmployeeAndDiffers() {
-        var current = mock(User.class);
-        when(current.isEmployee()).thenReturn(true);
-        when(current.getId()).thenReturn(2L);
+        var current = new AuthPrincipal(2L, Status.ACTIVE, AuthPrincipal.EMPLOYEE);
         when(authContext.getCurrentUser()).thenReturn(current);
 
         var ex = assertThrows(HttpClientErrorException.class, () -> employeeService.getById(1L));
@@ -259,10 +350,7 @@ public class EmployeeServiceTest {
 
     @Test
     void getById_deniesAccess_whenManagerHasNoDeptAccess() {
-        var current = mock(User.class);
-        when(current.isEmployee()).thenReturn(false);
-        when(current.isManager()).thenReturn(true);
-        when(current.getId()).thenReturn(10L);
+        var current = new AuthPrincipal(10L, Status.ACTIVE, AuthPrincipal.MANAGER);
         when(authContext.getCurrentUser()).thenReturn(current);
 
         when(departmentRepository.hasAccessToUser(1L, 10L)).thenReturn(false);
@@ -273,17 +361,13 @@ public class EmployeeServiceTest {
 
     @Test
     void getById_returnsUserDTO_whenAllowed() {
-        var current = mock(User.class);
-        when(current.isEmployee()).thenReturn(false);
-        when(current.isManager()).thenReturn(true);
-        when(current.getId()).thenReturn(10L);
+        var current = new AuthPrincipal(10L, Status.ACTIVE, AuthPrincipal.MANAGER);
         when(authContext.getCurrentUser()).thenReturn(current);
 
         when(departmentRepository.hasAccessToUser(1L, 10L)).thenReturn(true);
 
-        var user = new User("F", "L", "pw", "u@example.com", Status.ACTIVE, DateUtils.now(), Set.of());
-        user.setId(1L);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        var user = new UserDTO(1L, "F", "L", "u@example.com", Status.ACTIVE, DateUtils.now());
+        when(userRepository.findDtoById(1L)).thenReturn(Optional.of(user));
 
         var dto = employeeService.getById(1L);
         assertNotNull(dto);
@@ -293,42 +377,191 @@ public class EmployeeServiceTest {
 
     @Test
     void getAllUsers_callsFindAll_whenNotManager() {
-        var current = mock(User.class);
-        when(current.isManager()).thenReturn(false);
+        var current = new AuthPrincipal(1L, Status.ACTIVE, AuthPrincipal.ADMIN);
         when(authContext.getCurrentUser()).thenReturn(current);
 
         var list = List.of(
-                new User("A", "B", "pw", "a@ex.com", Status.ACTIVE, DateUtils.now(), Set.of()),
-                new User("C", "D", "pw", "c@ex.com", Status.ACTIVE, DateUtils.now(), Set.of())
+                new UserDTO(1L, "A", "B", "a@ex.com", Status.ACTIVE, DateUtils.now()),
+                new UserDTO(2L, "C", "D", "c@ex.com", Status.ACTIVE, DateUtils.now())
         );
-        list.get(0).setId(1L);
-        list.get(1).setId(2L);
 
-        when(userRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(list));
+        when(userRepository.findDtoSlice(any(Pageable.class))).thenReturn(new SliceImpl<>(list));
 
         var dtos = employeeService.getAllUsers(0, 10);
         assertNotNull(dtos);
-        assertEquals(2, dtos.size());
+        assertEquals(2, dtos.getContent().size());
+        verify(userRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void getAllUsers_keepsRequestedOffsetPageSize_aboveCursorCap() {
+        when(authContext.getCurrentUser()).thenReturn(new AuthPrincipal(1L, Status.ACTIVE, AuthPrincipal.ADMIN));
+        when(userRepository.findDtoSlice(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+
+        employeeService.getAllUsers(0, CursorPage.MAX_SIZE * 5);
+
+        verify(userRepository).findDtoSlice(PageRequest.of(0, CursorPage.MAX_SIZE * 5));
     }
 
     @Test
     void getAllUsers_usesManagerQuery_whenManager() {
-        var current = mock(User.class);
-        when(current.isManager()).thenReturn(true);
-        when(current.getId()).thenReturn(100L);
+        var current = new AuthPrincipal(100L, Status.ACTIVE, AuthPrincipal.MANAGER);
         when(authContext.getCurrentUser()).thenReturn(current);
 
         var list = List.of(
-                new User("M1", "U", "pw", "m1@ex.com", Status.ACTIVE, DateUtils.now(), Set.of())
+                new UserDTO(200L, "M1", "U", "m1@ex.com", Status.ACTIVE, DateUtils.now())
         );
-        list.get(0).setId(200L);
 
         when(userRepository.findUsersInSameDepartmentsAsManager(eq(100L), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(list));
+                .thenReturn(new SliceImpl<>(list));
 
         var dtos = employeeService.getAllUsers(0, 10);
         assertNotNull(dtos);
-        assertEquals(1, dtos.size());
+        assertEquals(1, dtos.getContent().size());
     }
-}
 
+    @Test
+    void estimateUserTotal_usesPerManagerTotal_whenManager() {
+        when(authContext.getCurrentUser()).thenReturn(new AuthPrincipal(100L, Status.ACTIVE, AuthPrincipal.MANAGER));
+        when(listTotals.usersVisibleTo(100L)).thenReturn(12L);
+
+        assertEquals(12L, employeeService.estimateUserTotal());
+        verify(listTotals, never()).users();
+    }
+
+    @Test
+    void getUsersAfter_usesManagerKeysetQuery_whenManager() {
+        when(authContext.getCurrentUser()).thenReturn(new AuthPrincipal(100L, Status.ACTIVE, AuthPrincipal.MANAGER));
+        var user = new UserDTO(200L, "M1", "U", "m1@ex.com", Status.ACTIVE, DateUtils.now());
+        when(userRepository.findUsersInSameDepartmentsAsManagerAfter(100L, 150L, Limit.of(11))).thenReturn(List.of(user));
+
+        var page = employeeService.getUsersAfter(CursorPage.encode(150L), null);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNext());
+        verify(userRepository, never()).findDtosAfter(any(), any());
+    }
+
+    @Test
+    void getUsersAfter_returnsCursorOfLastRow_whenMoreRowsRemain() {
+        when(authContext.getCurrentUser()).thenReturn(new AuthPrincipal(1L, Status.ACTIVE, AuthPrincipal.ADMIN));
+        var list = List.of(
+                new UserDTO(5L, "A", "B", "a@ex.com", Status.ACTIVE, DateUtils.now()),
+                new UserDTO(9L, "C", "D", "c@ex.com", Status.ACTIVE, DateUtils.now())
+        );
+        when(userRepository.findDtosAfter(0L, Limit.of(2))).thenReturn(list);
+
+        var page = employeeService.getUsersAfter(null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(5L, CursorPage.decode(page.getNext()));
+    }
+
+    @Test
+    void getUsersAfter_clampsOversizedPage() {
+        when(authContext.getCurrentUser()).thenReturn(new AuthPrincipal(1L, Status.ACTIVE, AuthPrincipal.ADMIN));
+        when(userRepository.findDtosAfter(0L, Limit.of(CursorPage.MAX_SIZE + 1))).thenReturn(List.of());
+
+        var page = employeeService.getUsersAfter(null, Integer.MAX_VALUE);
+
+        assertTrue(page.getItems().isEmpty());
+        verify(userRepository).findDtosAfter(0L, Limit.of(CursorPage.MAX_SIZE + 1));
+    }
+
+    @Test
+    void getById_allowsUserTheStaleIndexDoesNotKnowYet() {
+        when(authContext.getCurrentUser()).thenReturn(new AuthPrincipal(10L, Status.ACTIVE, AuthPrincipal.MANAGER));
+        when(membershipIndex.isReady()).thenReturn(true);
+        when(membershipIndex.visibleTo(10L)).thenReturn(new RoaringBitmap());
+        when(departmentRepository.hasAccessToUser(1L, 10L)).thenReturn(true);
+        var user = new UserDTO(1L, "A", "B", "a@ex.com", Status.ACTIVE, DateUtils.now());
+        when(userRepository.findDtoById(1L)).thenReturn(Optional.of(user));
+
+        assertEquals(user, employeeService.getById(1L));
+    }
+
+    @Test
+    void getById_deniesUserWhoLeftTheDepartment_evenIfIndexStillListsThem() {
+        when(authContext.getCurrentUser()).thenReturn(new AuthPrincipal(10L, Status.ACTIVE, AuthPrincipal.MANAGER));
+        when(membershipIndex.isReady()).thenReturn(true);
+        when(membershipIndex.visibleTo(10L)).thenReturn(RoaringBitmap.bitmapOf(1));
+        when(departmentRepository.hasAccessToUser(1L, 10L)).thenReturn(false);
+
+        var ex = assertThrows(HttpClientErrorException.class, () -> employeeService.getById(1L));
+        assertEquals(HttpStatus.FORBIDDEN, ex.getStatusCode());
+        verify(userRepository, never()).findDtoById(any());
+    }
+
+    @Test
+    void getAllUsers_pagesThroughVisibleBitmap_whenIndexReady() {
+        when(authContext.getCurrentUser()).thenReturn(new AuthPrincipal(100L, Status.ACTIVE, AuthPrincipal.MANAGER));
+        when(membershipIndex.isReady()).thenReturn(true);
+        when(membershipIndex.visibleTo(100L)).thenReturn(RoaringBitmap.bitmapOf(3, 5, 8, 13));
+        when(userRepository.findUsersInSameDepartmentsAsManagerByIdIn(100L, List.of(3L, 5L))).thenReturn(List.of(
+                new UserDTO(3L, "A", "B", "a@ex.com", Status.ACTIVE, DateUtils.now()),
+                new UserDTO(5L, "C", "D", "c@ex.com", Status.ACTIVE, DateUtils.now())
+        ));
+
+        var dtos = employeeService.getAllUsers(0, 2);
+
+        assertEquals(List.of(3L, 5L), dtos.getContent().stream().map(UserDTO::getId).toList());
+        assertTrue(dtos.hasNext());
+        verify(userRepository, never()).findUsersInSameDepartmentsAsManager(any(), any());
+        verify(userRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void getUsersAfter_dropsUsersWhoLeftTheDepartment_andFillsThePageFromLaterCandidates() {
+        when(authContext.getCurrentUser()).thenReturn(new AuthPrincipal(100L, Status.ACTIVE, AuthPrincipal.MANAGER));
+        when(membershipIndex.isReady()).thenReturn(true);
+        // User 5 has moved out of the manager's department but the index has not caught up yet.
+        when(membershipIndex.visibleTo(100L)).thenReturn(RoaringBitmap.bitmapOf(3, 5, 8, 13));
+        var user3 = new UserDTO(3L, "A", "B", "a@ex.com", Status.ACTIVE, DateUtils.now());
+        var user8 = new UserDTO(8L, "C", "D", "c@ex.com", Status.ACTIVE, DateUtils.now());
+        var user13 = new UserDTO(13L, "E", "F", "e@ex.com", Status.ACTIVE, DateUtils.now());
+        when(userRepository.findUsersInSameDepartmentsAsManagerByIdIn(100L, List.of(3L, 5L, 8L))).thenReturn(List.of(user3, user8));
+        when(userRepository.findUsersInSameDepartmentsAsManagerByIdIn(100L, List.of(13L))).thenReturn(List.of(user13));
+
+        var page = employeeService.getUsersAfter(null, 2);
+
+        assertEquals(List.of(3L, 8L), page.getItems().stream().map(UserDTO::getId).toList());
+        assertEquals(8L, CursorPage.decode(page.getNext()));
+    }
+
+    @Test
+    void exportUsers_streamsManagerScope_whenIndexNotReady() {
+        when(authContext.getCurrentUser()).thenReturn(new AuthPrincipal(100L, Status.ACTIVE, AuthPrincipal.MANAGER));
+        var user = new UserDTO(200L, "M1", "U", "m1@ex.com", Status.ACTIVE, DateUtils.now());
+        when(userRepository.streamUsersInSameDepartmentsAsManager(100L)).thenReturn(Stream.of(user));
+
+        var exported = new ArrayList<UserDTO>();
+        employeeService.exportUsers(exported::add);
+
+        assertEquals(List.of(user), exported);
+        verify(userRepository, never()).streamAll();
+    }
+
+    @Test
+    void exportUsers_readsVisibleBitmapInFetchSizedChunks_whenIndexReady() {
+        when(authContext.getCurrentUser()).thenReturn(new AuthPrincipal(100L, Status.ACTIVE, AuthPrincipal.MANAGER));
+        when(membershipIndex.isReady()).thenReturn(true);
+        var visible = new RoaringBitmap();
+        visible.add(1L, UserRepository.EXPORT_FETCH_SIZE + 3L);
+        when(membershipIndex.visibleTo(100L)).thenReturn(visible);
+        when(userRepository.findUsersInSameDepartmentsAsManagerByIdIn(eq(100L), any())).thenReturn(List.of());
+
+        employeeService.exportUsers(user -> {});
+
+        verify(userRepository, times(2)).findUsersInSameDepartmentsAsManagerByIdIn(eq(100L), any());
+        verify(userRepository, never()).streamUsersInSameDepartmentsAsManager(any());
+    }
+
+    @Test
+    void exportUsers_deniesEmployees() {
+        when(authContext.getCurrentUser()).thenReturn(new AuthPrincipal(7L, Status.ACTIVE, AuthPrincipal.EMPLOYEE));
+
+        var ex = assertThrows(HttpClientErrorException.class, () -> employeeService.exportUsers(user -> {}));
+        assertEquals(HttpStatus.FORBIDDEN, ex.getStatusCode());
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -0,0 +1,7 @@
+-- Migration: add users token epoch
+-- Created at: 2025-10-21T09:30:00.000000000
+-- Version: 20251021093000
+
+-- Write your SQL migration statements below
+
+ALTER TABLE users ADD COLUMN token_epoch INTEGER NOT NULL DEFAULT 0;
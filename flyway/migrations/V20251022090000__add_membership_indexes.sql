@@ -0,0 +1,9 @@
+-- Migration: add membership indexes
+-- Created at: 2025-10-22T09:00:00.000000000
+-- Version: 20251022090000
+
+-- Write your SQL migration statements below
+
+-- The primary keys lead with user_id; lookups by department or role (semi-joins, deletes, FK cascades) need their own index.
+CREATE INDEX IF NOT EXISTS idx_user_departments_department_user ON user_departments (department_id, user_id);
+CREATE INDEX IF NOT EXISTS idx_user_roles_role_user ON user_roles (role_id, user_id);
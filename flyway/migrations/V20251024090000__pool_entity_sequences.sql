@@ -0,0 +1,12 @@
+-- Migration: pool entity sequences
+-- Created at: 2025-10-24T09:00:00.000000000
+-- Version: 20251024090000
+
+-- Write your SQL migration statements below
+
+-- Hibernate maps users, departments and roles to their BIGSERIAL sequences with allocationSize = 50.
+-- Each nextval reserves a block of 50 ids, so inserts no longer need a round trip per row and can be batched.
+-- The column defaults still call nextval, so plain SQL inserts take a block of their own and never collide.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE departments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE roles_id_seq INCREMENT BY 50;
@@ -0,0 +1,13 @@
+-- Migration: create user event outbox
+-- Created at: 2025-10-25T09:00:00.000000000
+-- Version: 20251025090000
+
+-- Write your SQL migration statements below
+
+-- Events are written here in the same transaction as the change that raised them and relayed to the broker afterwards.
+-- Rows are deleted once the broker confirms them, so the table only holds the relay backlog.
+CREATE TABLE IF NOT EXISTS user_event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
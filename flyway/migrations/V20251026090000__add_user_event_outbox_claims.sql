@@ -0,0 +1,18 @@
+-- Migration: add user event outbox claims
+-- Created at: 2025-10-26T09:00:00.000000000
+-- Version: 20251026090000
+
+-- Write your SQL migration statements below
+
+-- The relay claims rows for a lease instead of holding row locks while it waits for broker confirms.
+-- A row whose lease has lapsed (the relay died or the confirm never came) is claimed again on a later poll.
+ALTER TABLE user_event_outbox ADD COLUMN claimed_until TIMESTAMP;
+
+-- Rows the relay cannot read are moved here so they stop blocking the rest of the outbox.
+CREATE TABLE IF NOT EXISTS user_event_outbox_failed (
+    id BIGINT PRIMARY KEY,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    failed_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    error TEXT
+);
@@ -0,0 +1,104 @@
+package com.bytebard.gateway.filters;
+
+import com.bytebard.utils.IdentityHeaderCodec;
+import com.bytebard.utils.TokenClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "spring.auth.identity-header.enabled", havingValue = "true")
+public class IdentityHeaderFilter implements GlobalFilter, Ordered {
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    private final JwtParser parser;
+    private final IdentityHeaderCodec codec;
+
+    public IdentityHeaderFilter(
+            @Value("${spring.jwt.secret}") String jwtSecret,
+            @Value("${spring.auth.identity-header.secret}") String identitySecret,
+            @Value("${spring.auth.identity-header.max-age-seconds:30}") long maxAgeSeconds
+    ) {
+        this.parser = Jwts.parser()
+                .verifyWith(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+                .build();
+        this.codec = new IdentityHeaderCodec(identitySecret, Duration.ofSeconds(maxAgeSeconds));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        var authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        var identity = identityHeader(authorization);
+        var request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(IdentityHeaderCodec.HEADER);
+                    if (identity != null) {
+                        headers.set(IdentityHeaderCodec.HEADER, identity);
+                    }
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private String identityHeader(String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+        try {
+            var token = authorization.substring("Bearer ".length());
+            var claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getSubject() == null) {
+                return null;
+            }
+            return codec.encode(new IdentityHeaderCodec.Identity(
+                    Long.parseLong(claims.getSubject()),
+                    claims.get(TokenClaims.STATUS, String.class),
+                    roles(claims),
+                    epoch(claims),
+                    claims.getIssuedAt() == null ? 0L : claims.getIssuedAt().getTime(),
+                    System.currentTimeMillis(),
+                    IdentityHeaderCodec.tokenHash(token),
+                    claims.getExpiration() == null ? 0L : claims.getExpiration().getTime()
+            ));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Forwarding unverified bearer token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private int epoch(Claims claims) {
+        var epoch = claims.get(TokenClaims.EPOCH, Integer.class);
+        return epoch == null ? 0 : epoch;
+    }
+
+    private List<String> roles(Claims claims) {
+        var roles = claims.get(TokenClaims.ROLES, String.class);
+        if (roles == null || roles.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(roles.split(","));
+    }
+}